@@ -0,0 +1,48 @@
+package banking;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+final class BenchmarkSupport {
+	static final long START_BALANCE = 5000 * Money.ONE_DOLLAR;
+
+	private BenchmarkSupport() {
+	}
+
+	// The processor logs every command to stdout; keep console I/O out of the numbers
+	static void silenceConsole() {
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+	}
+
+	static String id(int index) {
+		return PrimitiveAccountStore.formatId(index);
+	}
+
+	static Bank bankWithAccounts(int count) {
+		Bank bank = new Bank();
+		for (int i = 0; i < count; i++) {
+			String id = id(i);
+			Accounts account = i % 2 == 0 ? new Checking(3.0, id) : new Savings(4.5, id);
+			account.setBalanceCents(START_BALANCE);
+			bank.addAccount(id, account);
+		}
+		return bank;
+	}
+
+	static String commandFor(String verb) {
+		switch (verb) {
+		case "create":
+			return "create checking 99999999 1.0";
+		case "deposit":
+			return "deposit 00000000 100";
+		case "withdraw":
+			return "withdraw 00000000 50";
+		case "transfer":
+			return "transfer 00000000 00000002 25";
+		case "passtime":
+			return "passtime 1";
+		default:
+			return "close 00000000";
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package banking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class CommandProcessorBenchmark {
+
+	@Param({ "create", "deposit", "withdraw", "transfer" })
+	public String verb;
+
+	private Bank bank;
+	private CommandProcessor commandProcessor;
+	private Accounts from;
+	private Accounts to;
+	private ParsedCommand parsedCommand;
+
+	@Setup
+	public void setUp() {
+		BenchmarkSupport.silenceConsole();
+		bank = BenchmarkSupport.bankWithAccounts(1000);
+		commandProcessor = new CommandProcessor(bank);
+		from = bank.getAccount().get(BenchmarkSupport.id(0));
+		to = bank.getAccount().get(BenchmarkSupport.id(2));
+		parsedCommand = ParsedCommand.parse(BenchmarkSupport.commandFor(verb));
+	}
+
+	@Benchmark
+	public int process() {
+		commandProcessor.process(parsedCommand);
+		// Undo the effect so every call sees the same state
+		bank.getAccount().remove("99999999");
+		from.setBalanceCents(BenchmarkSupport.START_BALANCE);
+		to.setBalanceCents(BenchmarkSupport.START_BALANCE);
+		return bank.getNumberOfAccounts();
+	}
+
+	// Passtime changes every account, too many to undo inside the measured call, so it has
+	// its own state with a bank rebuilt before each invocation.
+	@State(Scope.Thread)
+	public static class PassTimeState {
+		Bank bank;
+		CommandProcessor commandProcessor;
+		final ParsedCommand passTime = ParsedCommand.parse(BenchmarkSupport.commandFor("passtime"));
+
+		@Setup(Level.Invocation)
+		public void setUp() {
+			BenchmarkSupport.silenceConsole();
+			bank = BenchmarkSupport.bankWithAccounts(1000);
+			commandProcessor = new CommandProcessor(bank);
+		}
+	}
+
+	@Benchmark
+	public int processPassTime(PassTimeState state) {
+		state.commandProcessor.process(state.passTime);
+		return state.bank.getNumberOfAccounts();
+	}
+}
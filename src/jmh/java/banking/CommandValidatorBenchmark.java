@@ -0,0 +1,51 @@
+package banking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class CommandValidatorBenchmark {
+
+	@Param({ "create", "deposit", "withdraw", "transfer", "passtime", "unknown" })
+	public String verb;
+
+	private CommandValidator commandValidator;
+	private Accounts from;
+	private Accounts to;
+	private String command;
+	private ParsedCommand parsedCommand;
+
+	@Setup
+	public void setUp() {
+		BenchmarkSupport.silenceConsole();
+		Bank bank = BenchmarkSupport.bankWithAccounts(1000);
+		commandValidator = new CommandValidator(bank);
+		from = bank.getAccount().get(BenchmarkSupport.id(0));
+		to = bank.getAccount().get(BenchmarkSupport.id(2));
+		command = BenchmarkSupport.commandFor(verb);
+		parsedCommand = ParsedCommand.parse(command);
+	}
+
+	@Benchmark
+	public boolean validateString() {
+		boolean valid = commandValidator.validate(command);
+		resetBalances();
+		return valid;
+	}
+
+	@Benchmark
+	public boolean validateParsed() {
+		boolean valid = commandValidator.validateCommand(parsedCommand);
+		resetBalances();
+		return valid;
+	}
+
+	// Withdraw and transfer validation move money; restore it so every call sees the same state
+	private void resetBalances() {
+		from.setBalanceCents(BenchmarkSupport.START_BALANCE);
+		to.setBalanceCents(BenchmarkSupport.START_BALANCE);
+	}
+}
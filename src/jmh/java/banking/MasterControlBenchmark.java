@@ -0,0 +1,55 @@
+package banking;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class MasterControlBenchmark {
+	private static final int COMMANDS = 10_000;
+
+	@Param({ "0.0", "1.0" })
+	public double zipfExponent;
+
+	private List<String> commands;
+
+	@Setup
+	public void setUp() {
+		BenchmarkSupport.silenceConsole();
+		WorkloadGenerator generator = new WorkloadGenerator(42);
+		generator.setAccounts(500);
+		generator.setZipfExponent(zipfExponent);
+		generator.setPassTimeEvery(1000);
+		commands = generator.stream(COMMANDS).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COMMANDS)
+	public int start() {
+		Bank bank = new Bank();
+		MasterControl masterControl = new MasterControl(new CommandValidator(bank), new CommandProcessor(bank),
+				new CommandHistory());
+		int[] invalid = new int[1];
+		masterControl.start(commands.iterator(), command -> invalid[0]++);
+		return invalid[0];
+	}
+
+	// Includes starting and stopping the three stage threads, small next to COMMANDS
+	@Benchmark
+	@OperationsPerInvocation(COMMANDS)
+	public int pipelined() {
+		Bank bank = new Bank();
+		try (PipelinedMasterControl pipeline = new PipelinedMasterControl(new CommandValidator(bank),
+				new CommandProcessor(bank), new CommandHistory())) {
+			int[] invalid = new int[1];
+			pipeline.start(commands.iterator(), command -> invalid[0]++);
+			return invalid[0];
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package banking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class PassTimeBenchmark {
+
+	@Param({ "10000", "1000000", "10000000" })
+	public int accounts;
+
+	@Param({ "eager", "parallel", "array" })
+	public String engine;
+
+	private Bank bank;
+	private CommandProcessor commandProcessor;
+	private ParsedCommand passTime;
+
+	// Every passtime compounds interest into the bank it runs on, so each iteration gets a
+	// fresh one. Within an iteration no account closes or pays the low-balance fee, as all
+	// of them start far above it with a positive APR, so every call does the same work.
+	@Setup(Level.Iteration)
+	public void setUp() {
+		BenchmarkSupport.silenceConsole();
+		bank = BenchmarkSupport.bankWithAccounts(accounts);
+		commandProcessor = new CommandProcessor(bank);
+		if (engine.equals("parallel")) {
+			commandProcessor.setPassTimeEngine(new ParallelPassTimeEngine());
+		} else if (engine.equals("array")) {
+			commandProcessor.setPassTimeEngine(new ArrayPassTimeEngine());
+		}
+		passTime = ParsedCommand.parse("passtime 1");
+	}
+
+	@Benchmark
+	public int passTime() {
+		commandProcessor.process(passTime);
+		return bank.getNumberOfAccounts();
+	}
+}
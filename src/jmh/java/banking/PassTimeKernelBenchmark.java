@@ -0,0 +1,63 @@
+package banking;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// The per-account passtime arithmetic alone: the object walk through Accounts.accrue
+// against the primitive-array kernel used by ArrayPassTimeEngine.
+@State(Scope.Thread)
+public class PassTimeKernelBenchmark {
+
+	@Param({ "10000", "1000000" })
+	public int accounts;
+
+	private Accounts[] objects;
+	private long[] startBalances;
+	private long[] balances;
+	private double[] factors;
+	private long[] fees;
+	private InterestEngine interestEngine;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(1);
+		interestEngine = new InterestEngine();
+		objects = new Accounts[accounts];
+		startBalances = new long[accounts];
+		balances = new long[accounts];
+		factors = new double[accounts];
+		fees = new long[accounts];
+		for (int i = 0; i < accounts; i++) {
+			double apr = random.nextInt(101) / 10.0;
+			Accounts account = new Checking(apr, BenchmarkSupport.id(i));
+			startBalances[i] = 1 + random.nextInt(300_000);
+			objects[i] = account;
+			factors[i] = interestEngine.growthFactor(apr, 1);
+			fees[i] = Accounts.LOW_BALANCE_FEE;
+		}
+	}
+
+	@Benchmark
+	public long accountsLoop() {
+		long total = 0;
+		for (int i = 0; i < accounts; i++) {
+			Accounts account = objects[i];
+			account.setBalanceCents(startBalances[i]);
+			account.accrue(1, interestEngine);
+			total += account.getBalanceCents();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public long arrayKernel() {
+		System.arraycopy(startBalances, 0, balances, 0, accounts);
+		ArrayPassTimeEngine.applyKernel(balances, factors, fees, accounts);
+		return balances[accounts - 1];
+	}
+}
@@ -0,0 +1,47 @@
+package banking;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Where a Bank keeps its accounts. Bank sends every lookup, insert, removal and
+// passtime sweep through this interface, so the storage is picked when the bank is
+// constructed: HashAccountStore (a heap map, the default), PrimitiveAccountStore
+// (struct of arrays) or MappedAccountStore (records in a memory-mapped file).
+//
+// A store that is not live hands out detached copies from get() and forEach(), and a
+// change to a copy only sticks once it is written back with put(). Bank.updateAccount()
+// does that for its callers and costs nothing on a live store.
+public interface AccountStore {
+
+	Accounts get(String id);
+
+	// Adds account under id, or overwrites the account id already holds
+	void put(String id, Accounts account);
+
+	boolean remove(String id);
+
+	int size();
+
+	void forEach(Consumer<Accounts> action);
+
+	// Runs update on every account, writes back the ones it returns true for and
+	// removes the rest.
+	void updateAll(Predicate<Accounts> update);
+
+	// True when get() returns the stored instance itself, so changes need no write-back
+	default boolean isLive() {
+		return false;
+	}
+
+	// True when get, put and remove may be called from several threads at once
+	default boolean isConcurrent() {
+		return false;
+	}
+
+	// A Map over the store, for code written against Bank.getAccount(). On a store that
+	// is not live its values are copies as well.
+	default Map<String, Accounts> asMap() {
+		return new AccountStoreMap(this);
+	}
+}
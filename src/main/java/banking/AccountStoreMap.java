@@ -0,0 +1,90 @@
+package banking;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+// The Map view AccountStore.asMap() gives stores that have no map of their own.
+// Iteration walks a list of the accounts taken when it starts; removing through the
+// iterator removes from the store.
+final class AccountStoreMap extends AbstractMap<String, Accounts> {
+	private final AccountStore store;
+
+	AccountStoreMap(AccountStore store) {
+		this.store = store;
+	}
+
+	@Override
+	public Accounts get(Object key) {
+		return key instanceof String ? store.get((String) key) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Accounts put(String key, Accounts value) {
+		Accounts previous = store.get(key);
+		store.put(key, value);
+		return previous;
+	}
+
+	@Override
+	public Accounts remove(Object key) {
+		Accounts previous = get(key);
+		if (previous != null) {
+			store.remove((String) key);
+		}
+		return previous;
+	}
+
+	@Override
+	public int size() {
+		return store.size();
+	}
+
+	@Override
+	public Set<Entry<String, Accounts>> entrySet() {
+		return new AbstractSet<Entry<String, Accounts>>() {
+			@Override
+			public int size() {
+				return store.size();
+			}
+
+			@Override
+			public Iterator<Entry<String, Accounts>> iterator() {
+				List<Accounts> accounts = new ArrayList<>(store.size());
+				store.forEach(accounts::add);
+				Iterator<Accounts> iterator = accounts.iterator();
+				return new Iterator<Entry<String, Accounts>>() {
+					private Accounts current;
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public Entry<String, Accounts> next() {
+						current = iterator.next();
+						return new SimpleImmutableEntry<>(current.getId(), current);
+					}
+
+					@Override
+					public void remove() {
+						if (current == null) {
+							throw new IllegalStateException();
+						}
+						store.remove(current.getId());
+						current = null;
+					}
+				};
+			}
+		};
+	}
+}
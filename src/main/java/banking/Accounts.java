@@ -1,23 +1,56 @@
 package banking;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 public abstract class Accounts {
+	static final long LOW_BALANCE = 100 * Money.ONE_DOLLAR;
+	static final long LOW_BALANCE_FEE = 25 * Money.ONE_DOLLAR;
+	// Balance of an account a passtime closed, so a racing lock-free deposit cannot land in it
+	private static final long CLOSED = Long.MIN_VALUE;
+	private static final VarHandle BALANCE;
+
+	static {
+		try {
+			BALANCE = MethodHandles.lookup().findVarHandle(Accounts.class, "balance", long.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
 
 	private final String id;
 	private double apr;
-	private double balance;
+	private long balance; // in cents, see Money
+	private int settledEpoch; // deferred passtimes already applied, see Bank
 
 	public Accounts(double balance, double apr, String id) {
-		this.balance = balance;
+		this(apr, id);
+		this.balance = Money.toCents(balance);
+	}
+
+	// Opens with a zero balance. Not an overload taking cents, which an integer literal
+	// meant as dollars would silently pick.
+	protected Accounts(double apr, String id) {
 		this.apr = apr;
 		this.id = id;
 	}
 
 	public double getBalance() {
-		return balance;
+		return Money.toDollars(getBalanceCents());
 	}
 
 	public void setBalance(double balance) {
-		this.balance = balance;
+		setBalanceCents(Money.toCents(balance));
+	}
+
+	public long getBalanceCents() {
+		long current = balance;
+		return current == CLOSED ? 0 : current;
+	}
+
+	// A blind write: only for callers that know no lock-free update can race with it
+	public void setBalanceCents(long balanceCents) {
+		BALANCE.setVolatile(this, balanceCents);
 	}
 
 	public double getApr() {
@@ -35,22 +68,110 @@ public abstract class Accounts {
 	}
 
 	public void addDeposit(double amount) {
-		balance += amount;
+		addDepositCents(Money.toCents(amount));
+	}
+
+	public void addDepositCents(long amount) {
+		tryDepositCents(amount);
 	}
 
 	public void withdraw(double amount) {
-		balance -= amount;
+		withdrawCents(Money.toCents(amount));
+	}
 
+	public void withdrawCents(long amount) {
 		// Ensure balance doesn't go below 0
-		if (balance < 0) {
-			balance = 0;
-		}
+		tryWithdrawCents(amount);
+	}
+
+	// Lock-free counterparts of addDepositCents and withdrawCents for callers that do not
+	// hold the account's lock (see ConcurrentBank). They return false if a passtime has
+	// closed the account in the meantime.
+	public boolean tryDepositCents(long amount) {
+		long current;
+		do {
+			current = (long) BALANCE.getVolatile(this);
+			if (current == CLOSED) {
+				return false;
+			}
+		} while (!BALANCE.compareAndSet(this, current, current + amount));
+		return true;
+	}
+
+	public boolean tryWithdrawCents(long amount) {
+		long current;
+		do {
+			current = (long) BALANCE.getVolatile(this);
+			if (current == CLOSED) {
+				return false;
+			}
+		} while (!BALANCE.compareAndSet(this, current, Math.max(0, current - amount)));
+		return true;
+	}
+
+	// Takes amount out only if the balance covers it, re-checked on every retry.
+	public boolean tryDebitCents(long amount) {
+		long current;
+		do {
+			current = (long) BALANCE.getVolatile(this);
+			if (current == CLOSED || current < amount) {
+				return false;
+			}
+		} while (!BALANCE.compareAndSet(this, current, current - amount));
+		return true;
+	}
+
+	// Takes out amount, or the whole balance if that is less, and returns what it took
+	public long debitUpToCents(long amount) {
+		long current;
+		long taken;
+		do {
+			current = (long) BALANCE.getVolatile(this);
+			if (current == CLOSED) {
+				return 0;
+			}
+			taken = Math.min(current, amount);
+		} while (!BALANCE.compareAndSet(this, current, current - taken));
+		return taken;
 	}
 
 	public String getId() {
 		return id;
 	}
 
+	boolean chargesLowBalanceFee() {
+		return true;
+	}
+
+	// Applies one passtime: the low-balance fee, then APR for the elapsed months.
+	// Returns false when the account has to be closed for a zero balance.
+	boolean accrue(int months, InterestEngine interestEngine) {
+		long current;
+		long next;
+		do {
+			current = (long) BALANCE.getVolatile(this);
+			if (current == CLOSED) {
+				return false;
+			}
+			next = current;
+			if (next != 0) {
+				if (next < LOW_BALANCE && chargesLowBalanceFee()) {
+					next -= LOW_BALANCE_FEE;
+				}
+				next = interestEngine.accrue(next, apr, months);
+			}
+		} while (!BALANCE.compareAndSet(this, current, next == 0 ? CLOSED : next));
+		return next != 0;
+	}
+
+	int getSettledEpoch() {
+		return settledEpoch;
+	}
+
+	void setSettledEpoch(int settledEpoch) {
+		this.settledEpoch = settledEpoch;
+	}
+
 	public abstract String getAccountType();
 
 }
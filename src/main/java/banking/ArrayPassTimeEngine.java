@@ -0,0 +1,78 @@
+package banking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Copies balances, growth factors and fee flags into primitive arrays and runs
+// passtime as one branch-light loop over them, then writes the results back.
+public class ArrayPassTimeEngine implements PassTimeEngine {
+	private Accounts[] accounts = new Accounts[0];
+	private long[] balances = new long[0];
+	private double[] factors = new double[0];
+	private long[] fees = new long[0];
+	private int length;
+
+	@Override
+	public void passTime(Bank bank, int months) {
+		if (bank.usesLockFreeBalances()) {
+			throw new IllegalStateException("Array passtime overwrites balances; use the eager engine");
+		}
+		bank.settleAll();
+		bank.markAllDirty();
+
+		AccountStore store = bank.getStore();
+		ensureCapacity(store.size());
+		InterestEngine interestEngine = bank.getInterestEngine();
+
+		length = 0;
+		store.forEach(account -> {
+			accounts[length] = account;
+			balances[length] = account.getBalanceCents();
+			factors[length] = interestEngine.growthFactor(account.getApr(), months);
+			fees[length] = account.chargesLowBalanceFee() ? Accounts.LOW_BALANCE_FEE : 0;
+			length++;
+		});
+
+		applyKernel(balances, factors, fees, length);
+
+		List<String> accountsToRemove = new ArrayList<>();
+		for (int i = 0; i < length; i++) {
+			Accounts account = accounts[i];
+			accounts[i] = null;
+			if (account.getBalanceCents() == 0 || balances[i] == 0) {
+				accountsToRemove.add(account.getId());
+				continue;
+			}
+			if (account instanceof CertificateOfDeposit) {
+				((CertificateOfDeposit) account).passTime(months);
+			}
+			account.setBalanceCents(balances[i]);
+			bank.updateAccount(account);
+		}
+
+		for (String accountId : accountsToRemove) {
+			store.remove(accountId);
+		}
+	}
+
+	// Same arithmetic as Accounts.accrue, kept free of object access so the JIT can
+	// unroll and vectorize it.
+	static void applyKernel(long[] balances, double[] factors, long[] fees, int length) {
+		for (int i = 0; i < length; i++) {
+			long balance = balances[i];
+			long fee = balance != 0 && balance < Accounts.LOW_BALANCE ? fees[i] : 0;
+			long grown = Math.round((balance - fee) * factors[i]);
+			balances[i] = balance == 0 ? 0 : grown;
+		}
+	}
+
+	private void ensureCapacity(int length) {
+		if (accounts.length < length) {
+			int capacity = Math.max(length, accounts.length * 2);
+			accounts = new Accounts[capacity];
+			balances = new long[capacity];
+			factors = new double[capacity];
+			fees = new long[capacity];
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package banking;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Non-blocking front end for callers such as a gateway: submit() queues a command and
+// returns a future of its CommandResult. At most maxInFlight commands may be queued or
+// running; beyond that submit() fails fast with RejectedExecutionException so the caller
+// can shed load instead of piling up work.
+//
+// The default executor is a single thread, which applies commands in submission order
+// and works with a plain Bank. A multi-threaded executor needs a ConcurrentBank.
+public class AsyncMasterControl implements AutoCloseable {
+	private final CommandValidator commandValidator;
+	private final CommandProcessor commandProcessor;
+	private final ExecutorService executor;
+	private final Semaphore inFlight;
+	private volatile CommandJournal journal;
+
+	public AsyncMasterControl(CommandValidator commandValidator, CommandProcessor commandProcessor, int maxInFlight) {
+		this(commandValidator, commandProcessor, Executors.newSingleThreadExecutor(), maxInFlight);
+	}
+
+	public AsyncMasterControl(CommandValidator commandValidator, CommandProcessor commandProcessor,
+			ExecutorService executor, int maxInFlight) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("maxInFlight must be positive");
+		}
+		this.commandValidator = commandValidator;
+		this.commandProcessor = commandProcessor;
+		this.executor = executor;
+		this.inFlight = new Semaphore(maxInFlight);
+	}
+
+	// Accepted commands are appended to the journal and their futures complete only once
+	// the journal reports them durable. They stay in flight until then, so a slow disk
+	// pushes back on submit() too. Refused for a bank with lock-free balances, as in
+	// MasterControl.setJournal().
+	public void setJournal(CommandJournal journal) {
+		if (journal != null && commandProcessor.getBank().usesLockFreeBalances()) {
+			throw new IllegalStateException("A journal needs a bank that locks every command");
+		}
+		this.journal = journal;
+	}
+
+	public CompletableFuture<CommandResult> submit(String command) {
+		if (!inFlight.tryAcquire()) {
+			return CompletableFuture.failedFuture(new RejectedExecutionException("Too many commands in flight"));
+		}
+		CompletableFuture<CommandResult> result;
+		try {
+			result = CompletableFuture.supplyAsync(() -> execute(command), executor)
+					.thenCompose(executed -> executed);
+		} catch (RejectedExecutionException e) {
+			inFlight.release();
+			return CompletableFuture.failedFuture(e);
+		}
+		return result.whenComplete((executed, failure) -> inFlight.release());
+	}
+
+	// Commands that can still be submitted before submit() starts rejecting
+	public int getAvailableCapacity() {
+		return inFlight.availablePermits();
+	}
+
+	// Lets queued commands run to completion; an interrupt while waiting abandons the
+	// rest and is passed on through the thread's interrupt status
+	@Override
+	public void close() {
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private CompletableFuture<CommandResult> execute(String text) {
+		ParsedCommand command = ParsedCommand.parse(text);
+		Bank bank = commandProcessor.getBank();
+		CommandJournal journal = this.journal;
+		CommandResult[] result = new CommandResult[1];
+		long[] lsn = new long[1];
+		bank.runLocked(command, () -> {
+			boolean valid = commandValidator.validateCommand(command);
+			if (valid) {
+				commandProcessor.process(command);
+				if (journal != null) {
+					lsn[0] = journal.append(command.getCommand());
+				}
+			}
+			long balance = balanceOf(bank, command);
+			result[0] = valid ? CommandResult.accepted(text, balance)
+					: CommandResult.rejected(text, reasonFor(commandValidator, command), balance);
+			return valid;
+		});
+		if (lsn[0] == 0) {
+			return CompletableFuture.completedFuture(result[0]);
+		}
+		return journal.whenDurable(lsn[0]).thenApply(durable -> result[0]);
+	}
+
+	private static long balanceOf(Bank bank, ParsedCommand command) {
+		String id = accountIdOf(command);
+		Accounts account = id == null ? null : bank.getAccount(id);
+		return account == null ? Money.INVALID : account.getBalanceCents();
+	}
+
+	private static String accountIdOf(ParsedCommand command) {
+		if (command == null) {
+			return null;
+		}
+		switch (command.getVerb()) {
+		case "deposit":
+		case "withdraw":
+		case "transfer":
+			return command.size() > 1 ? command.getToken(1) : null;
+		case "create":
+			return command.size() > 2 ? command.getToken(2) : null;
+		default:
+			return null;
+		}
+	}
+
+	// The validators only print their reasons, so this names the rule that failed at the
+	// level of detail available here.
+	private static String reasonFor(CommandValidator commandValidator, ParsedCommand command) {
+		if (command == null) {
+			return "null input";
+		}
+		if (!commandValidator.hasValidator(command.getVerb())) {
+			return "unknown command";
+		}
+		return "invalid " + command.getVerb() + " command";
+	}
+}
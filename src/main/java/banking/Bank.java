@@ -1,44 +1,220 @@
 package banking;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 public class Bank {
-	private Map<String, Accounts> accounts;
+	private final AccountStore accounts;
+	private final Map<String, Accounts> accountView;
+	private final InterestEngine interestEngine = new InterestEngine();
+	// Passtimes recorded by LazyPassTimeEngine that some accounts have not applied yet
+	private int[] deferredMonths = new int[16];
+	private int epoch;
+	// Accounts changed since the last checkpoint, see IncrementalCheckpointer; null while
+	// nobody tracks them
+	private Set<String> dirtyAccounts;
+	private volatile boolean allDirty;
 
 	Bank() {
-		accounts = new HashMap<>();
+		this(new HashAccountStore());
 	}
 
-	public Map<String, Accounts> getAccount() {
+	Bank(Map<String, Accounts> accounts) {
+		this(new HashAccountStore(accounts));
+	}
+
+	public Bank(AccountStore accounts) {
+		this.accounts = accounts;
+		this.accountView = accounts.asMap();
+	}
+
+	public AccountStore getStore() {
 		return accounts;
 	}
 
+	// A Map over the store. Prefer getAccount(id) and the store itself: on a store that
+	// is not live the values are copies.
+	public Map<String, Accounts> getAccount() {
+		return accountView;
+	}
+
+	// Looks up an account with any deferred passtimes applied; null if it does not
+	// exist or was closed by them.
+	public Accounts getAccount(String id) {
+		Accounts account = accounts.get(id);
+		if (account != null && account.getSettledEpoch() != epoch && !settle(account)) {
+			accounts.remove(id);
+			return null;
+		}
+		return account;
+	}
+
 	public void addAccount(String id, Accounts account) {
+		account.setSettledEpoch(epoch);
 		accounts.put(id, account);
+		markDirty(id);
+	}
+
+	// Records a change made to an account after getAccount(id). Every caller that changes
+	// one goes through here: it marks the account dirty, and on a store that hands out
+	// copies it also writes the copy back.
+	public void updateAccount(Accounts account) {
+		if (!accounts.isLive()) {
+			accounts.put(account.getId(), account);
+		}
+		markDirty(account.getId());
+	}
+
+	// A delta cannot record a removal, so the next checkpoint has to be a full one
+	public boolean removeAccount(String id) {
+		if (!accounts.remove(id)) {
+			return false;
+		}
+		markAllDirty();
+		return true;
 	}
 
 	public int getNumberOfAccounts() {
+		settleAll();
 		return accounts.size();
 	}
 
 	public void addDeposit(String id, double amount) {
-		getAccount().get(id).addDeposit(amount);
+		Accounts account = getAccount(id);
+		account.addDeposit(amount);
+		updateAccount(account);
+	}
+
+	public void addDepositCents(String id, long amount) {
+		Accounts account = getAccount(id);
+		account.addDepositCents(amount);
+		updateAccount(account);
 	}
 
 	public void withdraw(String id, double amount) {
-		getAccount().get(id).withdraw(amount);
+		Accounts account = getAccount(id);
+		account.withdraw(amount);
+		updateAccount(account);
+	}
+
+	public void withdrawCents(String id, long amount) {
+		Accounts account = getAccount(id);
+		account.withdrawCents(amount);
+		updateAccount(account);
 	}
 
 	public boolean accountExists(String accountId) {
-		return accounts.containsKey(accountId);
+		return getAccount(accountId) != null;
 	}
 
 	public String getAccountType(String accountId) {
-		if (accountExists(accountId)) {
-			return accounts.get(accountId).getAccountType();
+		Accounts account = getAccount(accountId);
+		if (account != null) {
+			return account.getAccountType();
 		} else {
 			return null;
 		}
 	}
+
+	// Runs the validation and processing of one command. A plain Bank is single-threaded
+	// and just runs it; ConcurrentBank first locks the accounts the command touches.
+	public boolean runLocked(ParsedCommand command, BooleanSupplier action) {
+		return action.getAsBoolean();
+	}
+
+	// Runs action while no command can run, for work that needs one consistent view of
+	// every account, like a snapshot. ConcurrentBank takes all of its locks for it.
+	public <T> T runExclusive(Supplier<T> action) {
+		return action.get();
+	}
+
+	// True when single-account deposits and withdrawals may run without runLocked holding
+	// a lock, see ConcurrentBank.
+	public boolean usesLockFreeBalances() {
+		return false;
+	}
+
+	// Starts recording which accounts change. Until the first checkpoint everything
+	// counts as changed.
+	public void trackDirtyAccounts() {
+		if (dirtyAccounts == null) {
+			dirtyAccounts = accounts.isConcurrent() ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+			allDirty = true;
+		}
+	}
+
+	public void markDirty(String id) {
+		if (dirtyAccounts != null) {
+			dirtyAccounts.add(id);
+		}
+	}
+
+	// For changes that reach every account, like passtime
+	public void markAllDirty() {
+		if (dirtyAccounts != null) {
+			allDirty = true;
+		}
+	}
+
+	public boolean isAllDirty() {
+		return allDirty;
+	}
+
+	public Set<String> getDirtyAccounts() {
+		return dirtyAccounts == null ? Set.of() : dirtyAccounts;
+	}
+
+	public void clearDirty() {
+		if (dirtyAccounts != null) {
+			dirtyAccounts.clear();
+			allDirty = false;
+		}
+	}
+
+	public InterestEngine getInterestEngine() {
+		return interestEngine;
+	}
+
+	// Accounts remember how far they have settled, which a store of copies would forget
+	public void deferPassTime(int months) {
+		if (!accounts.isLive()) {
+			throw new IllegalStateException("Deferred passtime needs a store of live accounts");
+		}
+		markAllDirty();
+		if (epoch == deferredMonths.length) {
+			deferredMonths = Arrays.copyOf(deferredMonths, epoch * 2);
+		}
+		deferredMonths[epoch++] = months;
+	}
+
+	// Applies every deferred passtime to every account and closes the ones it empties.
+	public void settleAll() {
+		if (epoch == 0) {
+			return;
+		}
+		accounts.updateAll(account -> {
+			if (account.getSettledEpoch() != epoch && !settle(account)) {
+				return false;
+			}
+			account.setSettledEpoch(0);
+			return true;
+		});
+		// Every account is caught up, so the deferred log can start over
+		epoch = 0;
+	}
+
+	private boolean settle(Accounts account) {
+		for (int i = account.getSettledEpoch(); i < epoch; i++) {
+			if (!account.accrue(deferredMonths[i], interestEngine)) {
+				return false;
+			}
+		}
+		account.setSettledEpoch(epoch);
+		return true;
+	}
 }
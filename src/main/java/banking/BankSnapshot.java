@@ -0,0 +1,237 @@
+package banking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+// Binary checkpoint of a Bank and its CommandProcessor's simulated date. The file is a
+// fixed header followed by one fixed-width record per account, so loading maps it and
+// decodes records in bulk instead of replaying commands:
+//
+//     header: int magic | int version | long journal LSN | long processor date (epoch day)
+//             | int account count | int CRC32 of the records
+//     record: int id | byte type | long balance cents | double apr | int monthly withdrawals
+//             | long last withdrawal day | long start day | long current day
+//
+// Dates are epoch days, with Long.MIN_VALUE for none. The journal LSN is the last journal
+// record the snapshot includes, so recovery replays only what comes after it.
+public final class BankSnapshot {
+	private static final int MAGIC = 0x424B534E; // "BKSN"
+	private static final int VERSION = 1;
+	static final int HEADER_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES;
+	static final int RECORD_SIZE = Integer.BYTES + 1 + Long.BYTES + Double.BYTES + Integer.BYTES + 3 * Long.BYTES;
+	private static final int DEFAULT_WINDOW_RECORDS = 1 << 20;
+	private static final long NO_DATE = Long.MIN_VALUE;
+
+	private BankSnapshot() {
+	}
+
+	// Writes to a temporary file and renames it over file, so a crash while writing
+	// leaves the previous snapshot in place. The whole write runs under
+	// Bank.runExclusive(), so commands running on a ConcurrentBank wait for it rather
+	// than tear the image.
+	public static void write(Path file, CommandProcessor processor, long journalLsn) throws IOException {
+		write(file, processor, () -> journalLsn);
+	}
+
+	// Like write(file, processor, journalLsn), but reads the journal's last LSN while the
+	// bank is held, so the image holds exactly the commands up to it. Returns that LSN.
+	public static long write(Path file, CommandProcessor processor, CommandJournal journal) throws IOException {
+		return write(file, processor, journal::getLastLsn);
+	}
+
+	private static long write(Path file, CommandProcessor processor, LongSupplier journalLsn) throws IOException {
+		Bank bank = processor.getBank();
+		try {
+			return bank.runExclusive(() -> {
+				bank.settleAll();
+				long lsn = journalLsn.getAsLong();
+				List<Accounts> accounts = new ArrayList<>(bank.getStore().size());
+				bank.getStore().forEach(accounts::add);
+				try {
+					write(file, accounts, processor.getCurrentDate(), lsn);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				return lsn;
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	static void write(Path file, Iterable<Accounts> accounts, LocalDate currentDate, long journalLsn)
+			throws IOException {
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * 8192);
+			CRC32 crc = new CRC32();
+			channel.position(HEADER_SIZE);
+			int count = 0;
+			for (Accounts account : accounts) {
+				if (buffer.remaining() < RECORD_SIZE) {
+					flush(channel, buffer, crc);
+				}
+				encode(buffer, account);
+				count++;
+			}
+			flush(channel, buffer, crc);
+
+			buffer.putInt(MAGIC).putInt(VERSION).putLong(journalLsn).putLong(currentDate.toEpochDay()).putInt(count)
+					.putInt((int) crc.getValue());
+			buffer.flip();
+			channel.position(0);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(true);
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	// Loads a snapshot into processor's bank, which must be empty, and returns the
+	// journal LSN it was taken at.
+	public static long load(Path file, CommandProcessor processor) throws IOException {
+		return load(file, processor, DEFAULT_WINDOW_RECORDS);
+	}
+
+	static long load(Path file, CommandProcessor processor, int windowRecords) throws IOException {
+		if (processor.getBank().getNumberOfAccounts() != 0) {
+			throw new IllegalStateException("Snapshots can only be loaded into an empty bank");
+		}
+		return apply(file, processor, windowRecords);
+	}
+
+	// Adds or replaces every account in the file and sets the processor date. The checksum
+	// is verified first, so a damaged file changes nothing.
+	static long apply(Path file, CommandProcessor processor) throws IOException {
+		return apply(file, processor, DEFAULT_WINDOW_RECORDS);
+	}
+
+	static long apply(Path file, CommandProcessor processor, int windowRecords) throws IOException {
+		Bank bank = processor.getBank();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE) {
+				throw new IOException("Snapshot is truncated: " + file);
+			}
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				throw new IOException("Not a bank snapshot: " + file);
+			}
+			long journalLsn = header.getLong();
+			LocalDate currentDate = LocalDate.ofEpochDay(header.getLong());
+			int count = header.getInt();
+			int checksum = header.getInt();
+			if (channel.size() != HEADER_SIZE + (long) count * RECORD_SIZE) {
+				throw new IOException("Snapshot is truncated: " + file);
+			}
+
+			// Map a window of whole records at a time so files past 2 GB load too
+			CRC32 crc = new CRC32();
+			for (int first = 0; first < count; first += windowRecords) {
+				crc.update(window(channel, first, Math.min(windowRecords, count - first)));
+			}
+			if ((int) crc.getValue() != checksum) {
+				throw new IOException("Snapshot checksum mismatch: " + file);
+			}
+			for (int first = 0; first < count; first += windowRecords) {
+				int records = Math.min(windowRecords, count - first);
+				MappedByteBuffer window = window(channel, first, records);
+				for (int i = 0; i < records; i++) {
+					Accounts account = decode(window);
+					bank.addAccount(account.getId(), account);
+				}
+			}
+			processor.setCurrentDate(currentDate);
+			return journalLsn;
+		}
+	}
+
+	private static MappedByteBuffer window(FileChannel channel, int first, int records) throws IOException {
+		return channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + (long) first * RECORD_SIZE,
+				(long) records * RECORD_SIZE);
+	}
+
+	private static void flush(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+		buffer.flip();
+		crc.update(buffer.duplicate());
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	// Writes one record at the buffer's position, shared with MappedAccountStore
+	static void encode(ByteBuffer buffer, Accounts account) {
+		int id = PrimitiveAccountStore.parseId(account.getId());
+		if (id < 0) {
+			throw new IllegalArgumentException("Account id must be 8 digits: " + account.getId());
+		}
+		byte type = PrimitiveAccountStore.CHECKING;
+		int monthlyWithdrawals = 0;
+		long lastWithdrawalDay = NO_DATE;
+		long startDay = NO_DATE;
+		long currentDay = NO_DATE;
+		if (account instanceof Savings) {
+			Savings savings = (Savings) account;
+			type = PrimitiveAccountStore.SAVINGS;
+			monthlyWithdrawals = savings.getMonthlyWithdrawals();
+			lastWithdrawalDay = toDay(savings.getLastWithdrawalDate());
+		} else if (account instanceof CertificateOfDeposit) {
+			CertificateOfDeposit cd = (CertificateOfDeposit) account;
+			type = PrimitiveAccountStore.CD;
+			startDay = toDay(cd.getStartDate());
+			currentDay = toDay(cd.getCurrentDate());
+		}
+		buffer.putInt(id).put(type).putLong(account.getBalanceCents()).putDouble(account.getApr())
+				.putInt(monthlyWithdrawals).putLong(lastWithdrawalDay).putLong(startDay).putLong(currentDay);
+	}
+
+	static Accounts decode(ByteBuffer buffer) {
+		String id = PrimitiveAccountStore.formatId(buffer.getInt());
+		byte type = buffer.get();
+		long balance = buffer.getLong();
+		double apr = buffer.getDouble();
+		int monthlyWithdrawals = buffer.getInt();
+		long lastWithdrawalDay = buffer.getLong();
+		long startDay = buffer.getLong();
+		long currentDay = buffer.getLong();
+		switch (type) {
+		case PrimitiveAccountStore.SAVINGS:
+			Savings savings = new Savings(apr, id);
+			savings.setBalanceCents(balance);
+			savings.setMonthlyWithdrawals(monthlyWithdrawals);
+			savings.setLastWithdrawalDate(toDate(lastWithdrawalDay));
+			return savings;
+		case PrimitiveAccountStore.CD:
+			CertificateOfDeposit cd = new CertificateOfDeposit(0, apr, id);
+			cd.setBalanceCents(balance);
+			cd.restoreDates(toDate(startDay), toDate(currentDay));
+			return cd;
+		default:
+			Checking checking = new Checking(apr, id);
+			checking.setBalanceCents(balance);
+			return checking;
+		}
+	}
+
+	private static long toDay(LocalDate date) {
+		return date == null ? NO_DATE : date.toEpochDay();
+	}
+
+	private static LocalDate toDate(long day) {
+		return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+	}
+}
@@ -24,6 +24,19 @@ public class CertificateOfDeposit extends Accounts {
 		currentDate = currentDate.plusMonths(months);
 	}
 
+	@Override
+	boolean chargesLowBalanceFee() {
+		return false;
+	}
+
+	@Override
+	boolean accrue(int months, InterestEngine interestEngine) {
+		if (getBalanceCents() != 0) {
+			passTime(months);
+		}
+		return super.accrue(months, interestEngine);
+	}
+
 	public boolean canWithdraw() {
 		LocalDate lockEndDate = startDate.plusMonths(LOCK_PERIOD_MONTHS);
 		return !currentDate.isBefore(lockEndDate);
@@ -33,4 +46,17 @@ public class CertificateOfDeposit extends Accounts {
 		return Date.from(startDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
 	}
 
+	LocalDate getStartDate() {
+		return startDate;
+	}
+
+	LocalDate getCurrentDate() {
+		return currentDate;
+	}
+
+	void restoreDates(LocalDate startDate, LocalDate currentDate) {
+		this.startDate = startDate;
+		this.currentDate = currentDate;
+	}
+
 }
@@ -2,7 +2,7 @@ package banking;
 
 public class Checking extends Accounts {
 	public Checking(double apr, String id) {
-		super(0, apr, id);
+		super(apr, id);
 	}
 
 	@Override
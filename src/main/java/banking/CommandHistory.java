@@ -10,12 +10,12 @@ public class CommandHistory {
         this.invalidCommands = new ArrayList<>();
     }
 
-    public void addInvalidCommand(String command) {
+    public synchronized void addInvalidCommand(String command) {
         invalidCommands.add(command);
     }
 
 
-    public List<String> getInvalidCommands() {
+    public synchronized List<String> getInvalidCommands() {
         return new ArrayList<>(invalidCommands);
     }
 
@@ -0,0 +1,387 @@
+package banking;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+// Append-only write-ahead log of accepted commands. Every command gets a log sequence
+// number (LSN), counting up from 1 across restarts. A record is
+//
+//     int length | long lsn | length bytes of UTF-8 command | int CRC32 of lsn and command
+//
+// so a record torn by a crash is detected and cut off when the journal is reopened.
+//
+// When a command counts as durable depends on the mode: EVERY_COMMAND forces the file
+// before append() returns; GROUP_COMMIT lets a background thread force everything
+// appended in the last interval with one fsync; OS_BUFFERED hands each record to the OS
+// but never forces, so it survives a process crash but not a power loss.
+public class CommandJournal implements Closeable {
+	public enum Durability {
+		EVERY_COMMAND, GROUP_COMMIT, OS_BUFFERED
+	}
+
+	private static final int BUFFER_SIZE = 1 << 20;
+	private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+	private static final int RECORD_OVERHEAD = HEADER_SIZE + Integer.BYTES;
+
+	private final FileChannel channel;
+	private final Durability durability;
+	private final long groupCommitNanos;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition durableAdvanced = lock.newCondition();
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final CRC32 crc = new CRC32();
+	private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+	private final Thread flusher;
+	private long lastLsn;
+	private long writtenLsn;
+	private volatile long durableLsn;
+	private volatile boolean closed;
+	private IOException failure;
+
+	public CommandJournal(Path file, Durability durability) throws IOException {
+		this(file, durability, 5);
+	}
+
+	public CommandJournal(Path file, Durability durability, long groupCommitMillis) throws IOException {
+		if (groupCommitMillis < 1) {
+			throw new IllegalArgumentException("groupCommitMillis must be positive");
+		}
+		this.durability = durability;
+		this.groupCommitNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitMillis);
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+
+		// Pick up after the last complete record and drop anything torn after it
+		long[] end = new long[2];
+		scan(channel, 0, (command, lsn) -> end[1] = lsn, end);
+		channel.truncate(end[0]);
+		channel.position(end[0]);
+		lastLsn = writtenLsn = durableLsn = end[1];
+
+		if (durability == Durability.GROUP_COMMIT) {
+			flusher = new Thread(this::runFlusher, "journal-group-commit");
+			flusher.setDaemon(true);
+			flusher.start();
+		} else {
+			flusher = null;
+		}
+	}
+
+	// Reads every complete record with an LSN above afterLsn, in order, and returns the
+	// last LSN in the file.
+	public static long replay(Path file, long afterLsn, ObjLongConsumer<String> commands) throws IOException {
+		if (!Files.exists(file)) {
+			return 0;
+		}
+		long[] end = new long[2];
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			scan(channel, afterLsn, commands, end);
+		}
+		return end[1];
+	}
+
+	// Appends one command and returns its LSN. Only EVERY_COMMAND and OS_BUFFERED make it
+	// durable before returning; otherwise use awaitDurable() or whenDurable().
+	public long append(String command) {
+		byte[] bytes = command.getBytes(StandardCharsets.UTF_8);
+		List<Waiter> ready = List.of();
+		lock.lock();
+		try {
+			ensureUsable();
+			long lsn = ++lastLsn;
+			int size = RECORD_OVERHEAD + bytes.length;
+			if (buffer.remaining() < size) {
+				writeBuffer();
+			}
+			if (size > buffer.capacity()) {
+				ByteBuffer large = ByteBuffer.allocate(size);
+				encode(large, lsn, bytes);
+				large.flip();
+				write(large);
+			} else {
+				encode(buffer, lsn, bytes);
+			}
+
+			if (durability != Durability.GROUP_COMMIT) {
+				writeBuffer();
+				if (durability == Durability.EVERY_COMMAND) {
+					channel.force(false);
+				}
+				ready = markDurable(lsn);
+			}
+			return lsn;
+		} catch (IOException e) {
+			failure = e;
+			throw new UncheckedIOException(e);
+		} finally {
+			lock.unlock();
+			complete(ready);
+		}
+	}
+
+	public long getLastLsn() {
+		lock.lock();
+		try {
+			return lastLsn;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getDurableLsn() {
+		return durableLsn;
+	}
+
+	public void awaitDurable(long lsn) {
+		if (durableLsn >= lsn) {
+			return;
+		}
+		lock.lock();
+		try {
+			while (durableLsn < lsn) {
+				ensureUsable();
+				durableAdvanced.awaitUninterruptibly();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Waits until everything appended so far is durable
+	public void sync() {
+		awaitDurable(getLastLsn());
+	}
+
+	// Completes on the group-commit thread once lsn is durable, without blocking the caller
+	public CompletableFuture<Void> whenDurable(long lsn) {
+		if (durableLsn >= lsn) {
+			return CompletableFuture.completedFuture(null);
+		}
+		lock.lock();
+		try {
+			if (failure != null) {
+				return CompletableFuture.failedFuture(new UncheckedIOException(failure));
+			}
+			if (durableLsn >= lsn) {
+				return CompletableFuture.completedFuture(null);
+			}
+			Waiter waiter = new Waiter(lsn);
+			waiters.add(waiter);
+			return waiter.future;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (flusher != null) {
+			LockSupport.unpark(flusher);
+			try {
+				flusher.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		List<Waiter> ready = List.of();
+		lock.lock();
+		try {
+			if (failure == null) {
+				writeBuffer();
+				channel.force(false);
+				ready = markDurable(lastLsn);
+			}
+		} finally {
+			failWaiters(new IOException("Journal closed"));
+			lock.unlock();
+			complete(ready);
+			channel.close();
+		}
+	}
+
+	private void runFlusher() {
+		while (!closed) {
+			LockSupport.parkNanos(groupCommitNanos);
+			long target;
+			lock.lock();
+			try {
+				if (failure != null || lastLsn == durableLsn) {
+					continue;
+				}
+				writeBuffer();
+				target = writtenLsn;
+			} catch (IOException e) {
+				failure = e;
+				failWaiters(e);
+				continue;
+			} finally {
+				lock.unlock();
+			}
+
+			// Appenders keep filling the buffer while this one fsync covers the batch
+			try {
+				channel.force(false);
+			} catch (IOException e) {
+				lock.lock();
+				try {
+					failure = e;
+					failWaiters(e);
+				} finally {
+					lock.unlock();
+				}
+				continue;
+			}
+			List<Waiter> ready;
+			lock.lock();
+			try {
+				ready = markDurable(target);
+			} finally {
+				lock.unlock();
+			}
+			complete(ready);
+		}
+	}
+
+	private void encode(ByteBuffer target, long lsn, byte[] bytes) {
+		crc.reset();
+		target.putInt(bytes.length);
+		int lsnAt = target.position();
+		target.putLong(lsn);
+		target.put(bytes);
+		crc.update(target.duplicate().position(lsnAt).limit(target.position()));
+		target.putInt((int) crc.getValue());
+	}
+
+	private void writeBuffer() throws IOException {
+		buffer.flip();
+		write(buffer);
+		buffer.clear();
+		writtenLsn = lastLsn;
+	}
+
+	private void write(ByteBuffer source) throws IOException {
+		while (source.hasRemaining()) {
+			channel.write(source);
+		}
+	}
+
+	// Called with the lock held. Returns the waiters now satisfied, for the caller to
+	// complete once it has released the lock so no callback runs under it.
+	private List<Waiter> markDurable(long lsn) {
+		if (lsn <= durableLsn) {
+			return List.of();
+		}
+		durableLsn = lsn;
+		durableAdvanced.signalAll();
+		if (waiters.isEmpty()) {
+			return List.of();
+		}
+		List<Waiter> ready = new ArrayList<>();
+		while (!waiters.isEmpty() && waiters.peek().lsn <= lsn) {
+			ready.add(waiters.poll());
+		}
+		return ready;
+	}
+
+	private static void complete(List<Waiter> ready) {
+		for (Waiter waiter : ready) {
+			waiter.future.complete(null);
+		}
+	}
+
+	// Called with the lock held
+	private void failWaiters(IOException cause) {
+		durableAdvanced.signalAll();
+		while (!waiters.isEmpty()) {
+			waiters.poll().future.completeExceptionally(new UncheckedIOException(cause));
+		}
+	}
+
+	private void ensureUsable() {
+		if (failure != null) {
+			throw new UncheckedIOException("Journal write failed", failure);
+		}
+		if (closed) {
+			throw new IllegalStateException("Journal is closed");
+		}
+	}
+
+	// Reads records from the start of the file; end receives the byte offset after the last
+	// complete record and its LSN.
+	private static void scan(FileChannel channel, long afterLsn, ObjLongConsumer<String> commands, long[] end)
+			throws IOException {
+		channel.position(0);
+		DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+		CRC32 crc = new CRC32();
+		ByteBuffer lsnBytes = ByteBuffer.allocate(Long.BYTES);
+		long position = 0;
+		long size = channel.size();
+		while (true) {
+			try {
+				int length = in.readInt();
+				if (length < 0 || position + RECORD_OVERHEAD + length > size) {
+					return;
+				}
+				long lsn = in.readLong();
+				byte[] bytes = new byte[length];
+				in.readFully(bytes);
+				int checksum = in.readInt();
+
+				crc.reset();
+				lsnBytes.clear();
+				crc.update(lsnBytes.putLong(lsn).array());
+				crc.update(bytes);
+				if ((int) crc.getValue() != checksum) {
+					return;
+				}
+				if (lsn > afterLsn) {
+					commands.accept(new String(bytes, StandardCharsets.UTF_8), lsn);
+				}
+				position += RECORD_OVERHEAD + length;
+				end[0] = position;
+				end[1] = lsn;
+			} catch (EOFException e) {
+				return;
+			}
+		}
+	}
+
+	private static final class Waiter implements Comparable<Waiter> {
+		final long lsn;
+		final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		Waiter(long lsn) {
+			this.lsn = lsn;
+		}
+
+		@Override
+		public int compareTo(Waiter other) {
+			return Long.compare(lsn, other.lsn);
+		}
+	}
+}
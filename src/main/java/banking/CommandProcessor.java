@@ -1,12 +1,11 @@
 package banking;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
 
 public class CommandProcessor {
 
 	private final Bank bank;
+	private PassTimeEngine passTimeEngine = new EagerPassTimeEngine();
 	private LocalDate currentDate;
 
 	public CommandProcessor(Bank bank) {
@@ -14,111 +13,139 @@ public class CommandProcessor {
 		this.currentDate = LocalDate.now(); // Initializing currentDate to today's date
 	}
 
+	public Bank getBank() {
+		return bank;
+	}
+
+	public LocalDate getCurrentDate() {
+		return currentDate;
+	}
+
+	void setCurrentDate(LocalDate currentDate) {
+		this.currentDate = currentDate;
+	}
+
+	public void setPassTimeEngine(PassTimeEngine passTimeEngine) {
+		this.passTimeEngine = passTimeEngine;
+	}
+
 	public void process(String command) {
-		String[] parts = command.trim().split("\\s+");
-		if (parts.length < 2) {
+		process(ParsedCommand.parse(command));
+	}
+
+	public void process(ParsedCommand command) {
+		if (command.size() < 2) {
 			return;
 		}
 
-		String action = parts[0].toLowerCase();
+		String action = command.getVerb().toLowerCase();
 
 		switch (action) {
 		case "create":
-			processCreate(parts);
+			processCreate(command);
 			break;
 		case "deposit":
-			processDeposit(parts);
+			processDeposit(command);
 			break;
 		case "withdraw":
-			processWithdraw(parts);
+			processWithdraw(command);
 			break;
 		case "passtime":
-			processPassTime(parts);
+			processPassTime(command);
 			break;
 		case "transfer":
-			processTransfer(parts);
+			processTransfer(command);
 			break;
 		default:
 			System.out.println("Unknown action: " + action);
 		}
 	}
 
-	private void processCreate(String[] parts) {
-		if (parts.length < 4) {
+	private void processCreate(ParsedCommand command) {
+		if (command.size() < 4) {
 			System.out.println("Invalid command format. Not enough arguments.");
 			return;
 		}
 
-		String accountType = parts[1].toLowerCase();
-		String id = parts[2];
-		double apr = parseDouble(parts[3], "APR value", 0, 10);
+		String accountType = command.getToken(1).toLowerCase();
+		String id = command.getToken(2);
+		double apr = parseDouble(command.getToken(3), "APR value", 0, 10);
 
 		if (apr == -1 || bank.accountExists(id)) {
 			return;
 		}
 
-		Accounts account = createAccount(accountType, id, apr, parts);
+		Accounts account = createAccount(accountType, id, apr, command);
 		if (account != null) {
 			bank.addAccount(id, account);
 			System.out.println("Account created successfully: " + id);
 		}
 	}
 
-	private Accounts createAccount(String accountType, String id, double apr, String[] parts) {
+	private Accounts createAccount(String accountType, String id, double apr, ParsedCommand command) {
 		switch (accountType) {
 		case "checking":
 			return new Checking(apr, id);
 		case "savings":
 			return new Savings(apr, id);
 		case "cd":
-			return createCdAccount(parts, apr, id);
+			return createCdAccount(command, apr, id);
 		default:
 			System.out.println("Invalid account type: " + accountType);
 			return null;
 		}
 	}
 
-	private Accounts createCdAccount(String[] parts, double apr, String id) {
-		if (parts.length < 5) {
+	private Accounts createCdAccount(ParsedCommand command, double apr, String id) {
+		if (command.size() < 5) {
 			System.out.println("CD creation requires an initial balance.");
 			return null;
 		}
 
-		double initialBalance = parseDouble(parts[4], "initial balance for CD", 1000, 10000);
+		long initialBalance = parseCents(command.getToken(4), "initial balance for CD", 1000 * Money.ONE_DOLLAR,
+				10000 * Money.ONE_DOLLAR);
 		if (initialBalance == -1) {
 			return null;
 		}
 
-		return new CertificateOfDeposit(initialBalance, apr, id);
+		return new CertificateOfDeposit(Money.toDollars(initialBalance), apr, id);
 	}
 
-	private void processDeposit(String[] parts) {
-		String id = parts[1];
-		double amount = parseDouble(parts[2], "deposit amount", 0, Double.MAX_VALUE);
+	private void processDeposit(ParsedCommand command) {
+		String id = command.getToken(1);
+		long amount = parseCents(command.getToken(2), "deposit amount", 0, Long.MAX_VALUE);
 
 		if (amount == -1 || !validateAccount(id)) {
 			return;
 		}
 
-		Accounts account = bank.getAccount().get(id);
-		if (!canDeposit(account, amount)) {
+		Accounts account = bank.getAccount(id);
+		if (account == null || !canDeposit(account, amount)) {
 			return;
 		}
 
-		bank.addDeposit(id, amount);
-		System.out.println("Deposited " + amount + " to account " + id);
+		if (bank.usesLockFreeBalances()) {
+			if (!account.tryDepositCents(amount)) {
+				System.out.println("Account with ID " + id + " does not exist.");
+				return;
+			}
+			bank.updateAccount(account);
+		} else {
+			bank.addDepositCents(id, amount);
+		}
+		System.out.println("Deposited " + Money.toDollars(amount) + " to account " + id);
 	}
 
-	private boolean canDeposit(Accounts account, double amount) {
+	private boolean canDeposit(Accounts account, long amount) {
 		switch (account.getClass().getSimpleName().toLowerCase()) {
 		case "checking":
-			if (amount > 1000) {
+			if (amount > 1000 * Money.ONE_DOLLAR) {
 				System.out.println("Deposit amount exceeds limit for Checking account. Max: $1000");
 				return false;
 			}
 			break;
 		case "savings":
-			if (amount > 2500) {
+			if (amount > 2500 * Money.ONE_DOLLAR) {
 				System.out.println("Deposit amount exceeds limit for Savings account. Max: $2500");
 				return false;
 			}
@@ -132,34 +159,42 @@ public class CommandProcessor {
 		return true;
 	}
 
-	private void processWithdraw(String[] parts) {
-		String id = parts[1];
-		double amount = parseDouble(parts[2], "withdrawal amount", 0, Double.MAX_VALUE);
+	private void processWithdraw(ParsedCommand command) {
+		String id = command.getToken(1);
+		long amount = parseCents(command.getToken(2), "withdrawal amount", 0, Long.MAX_VALUE);
 
 		if (amount == -1 || !validateAccount(id)) {
 			return;
 		}
 
-		Accounts account = bank.getAccount().get(id);
-		if (!canWithdraw(account, amount)) {
+		Accounts account = bank.getAccount(id);
+		if (account == null || !canWithdraw(account, amount)) {
 			return;
 		}
 
-		account.withdraw(amount);
-		System.out.println("Withdrew " + amount + " from account " + id);
+		if (bank.usesLockFreeBalances() && account instanceof Checking) {
+			if (!account.tryWithdrawCents(amount)) {
+				System.out.println("Account with ID " + id + " does not exist.");
+				return;
+			}
+		} else {
+			account.withdrawCents(amount);
+		}
+		bank.updateAccount(account);
+		System.out.println("Withdrew " + Money.toDollars(amount) + " from account " + id);
 	}
 
-	private boolean canWithdraw(Accounts account, double amount) {
+	private boolean canWithdraw(Accounts account, long amount) {
 		switch (account.getClass().getSimpleName().toLowerCase()) {
 		case "checking":
-			if (amount > 400) {
+			if (amount > 400 * Money.ONE_DOLLAR) {
 				System.out.println("Withdrawal amount exceeds limit for Checking account. Max: $400");
 				return false;
 			}
 			break;
 		case "savings":
 			Savings savingsAccount = (Savings) account;
-			if (amount > 1000 || savingsAccount.hasExceededMonthlyWithdrawalLimit()) {
+			if (amount > 1000 * Money.ONE_DOLLAR || savingsAccount.hasExceededMonthlyWithdrawalLimit()) {
 				System.out.println("Exceeds withdrawal limit for Savings account.");
 				return false;
 			}
@@ -167,7 +202,7 @@ public class CommandProcessor {
 			break;
 		case "certificateofdeposit":
 			CertificateOfDeposit cdAccount = (CertificateOfDeposit) account;
-			if (!cdAccount.canWithdraw() || amount < cdAccount.getBalance()) {
+			if (!cdAccount.canWithdraw() || amount < cdAccount.getBalanceCents()) {
 				System.out.println("Cannot withdraw from CD account.");
 				return false;
 			}
@@ -178,36 +213,37 @@ public class CommandProcessor {
 		return true;
 	}
 
-	private void processTransfer(String[] parts) {
-		if (parts.length != 4) {
+	private void processTransfer(ParsedCommand command) {
+		if (command.size() != 4) {
 			System.out.println("Invalid transfer command. Usage: transfer <fromId> <toId> <amount>");
 			return;
 		}
 
-		String fromId = parts[1];
-		String toId = parts[2];
-		double amount = parseDouble(parts[3], "transfer amount", 0, Double.MAX_VALUE);
+		String fromId = command.getToken(1);
+		String toId = command.getToken(2);
+		long amount = parseCents(command.getToken(3), "transfer amount", 0, Long.MAX_VALUE);
 
 		if (amount == -1 || !validateAccount(fromId) || !validateAccount(toId)) {
 			return;
 		}
 
-		Accounts fromAccount = bank.getAccount().get(fromId);
-		Accounts toAccount = bank.getAccount().get(toId);
+		Accounts fromAccount = bank.getAccount(fromId);
+		// One instance for a transfer to itself, also on stores that hand out copies
+		Accounts toAccount = toId.equals(fromId) ? fromAccount : bank.getAccount(toId);
 
 		if (fromAccount instanceof CertificateOfDeposit || toAccount instanceof CertificateOfDeposit) {
 			System.out.println("Error: CD accounts cannot be part of a transfer.");
 			return;
 		}
 
-		if (fromAccount.getBalance() < amount) {
+		if (!fromAccount.tryDebitCents(amount)) {
 			System.out.println("Insufficient balance in account " + fromId + " for the transfer.");
 			return;
 		}
-
-		fromAccount.setBalance(fromAccount.getBalance() - amount);
-		toAccount.setBalance(toAccount.getBalance() + amount);
-		System.out.println("Transferred " + amount + " from account " + fromId + " to account " + toId);
+		toAccount.addDepositCents(amount);
+		bank.updateAccount(fromAccount);
+		bank.updateAccount(toAccount);
+		System.out.println("Transferred " + Money.toDollars(amount) + " from account " + fromId + " to account " + toId);
 	}
 
 	private boolean validateAccount(String id) {
@@ -218,8 +254,8 @@ public class CommandProcessor {
 		return true;
 	}
 
-	private void processPassTime(String[] parts) {
-		int monthsToPass = parseInt(parts[1]);
+	private void processPassTime(ParsedCommand command) {
+		int monthsToPass = parseInt(command.getToken(1));
 		if (monthsToPass == -1) {
 			return;
 		}
@@ -227,54 +263,7 @@ public class CommandProcessor {
 		currentDate = currentDate.plusMonths(monthsToPass);
 		System.out.println("Time passed: " + monthsToPass + " months. Current date is now: " + currentDate);
 
-		List<String> accountsToRemove = new ArrayList<>();
-		for (Accounts account : bank.getAccount().values()) {
-			processAccountTime(account, monthsToPass);
-			if (account.getBalance() == 0) {
-				System.out.println("Closing account: " + account.getId() + " due to zero balance.");
-				accountsToRemove.add(account.getId());
-			}
-		}
-
-		// Remove accounts after iteration
-		for (String accountId : accountsToRemove) {
-			bank.getAccount().remove(accountId);
-		}
-	}
-
-	private void processAccountTime(Accounts account, int monthsToPass) {
-		if (account.getBalance() == 0) {
-			// Log the account being removed
-			System.out.println("Closing account: " + account.getId() + " due to zero balance.");
-			bank.getAccount().remove(account.getId()); // Ensure account is removed from the map
-			return; // No further processing for this account
-		}
-
-		if (account.getBalance() < 100 && !(account instanceof CertificateOfDeposit)) {
-			account.setBalance(account.getBalance() - 25);
-			System.out.println("Deducted $25 from account: " + account.getId() + " due to low balance.");
-		}
-
-		if (account instanceof Savings || account instanceof Checking) {
-			applyAPR(account, monthsToPass);
-		} else if (account instanceof CertificateOfDeposit) {
-			CertificateOfDeposit cdAccount = (CertificateOfDeposit) account;
-			cdAccount.passTime(monthsToPass);
-			applyAPR(cdAccount, monthsToPass);
-		}
-	}
-
-	private void applyAPR(Accounts account, int monthsToPass) {
-		double aprDecimal = account.getApr() / 100.0;
-		double monthlyAPR = aprDecimal / 12;
-		double newBalance = account.getBalance();
-
-		for (int i = 0; i < monthsToPass; i++) {
-			newBalance *= (1 + monthlyAPR); // Compound monthly APR
-		}
-
-		account.setBalance(newBalance);
-		System.out.println("Applied APR to account: " + account.getId() + ". New balance: " + newBalance);
+		passTimeEngine.passTime(bank, monthsToPass);
 	}
 
 	private double parseDouble(String value, String fieldName, double minValue, double maxValue) {
@@ -291,6 +280,20 @@ public class CommandProcessor {
 		}
 	}
 
+	private long parseCents(String value, String fieldName, long minValue, long maxValue) {
+		long parsedValue = Money.parseCents(value);
+		if (parsedValue == Money.INVALID) {
+			System.out.println("Invalid " + fieldName + ". Please enter a valid number.");
+			return -1;
+		}
+		if (parsedValue < minValue || parsedValue > maxValue) {
+			System.out.println(fieldName + " must be between " + Money.toDollars(minValue) + " and "
+					+ Money.toDollars(maxValue) + ".");
+			return -1;
+		}
+		return parsedValue;
+	}
+
 	private int parseInt(String value) {
 		try {
 			int parsedValue = Integer.parseInt(value);
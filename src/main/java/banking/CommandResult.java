@@ -0,0 +1,48 @@
+package banking;
+
+// Outcome of one command submitted through AsyncMasterControl.
+public final class CommandResult {
+	private final String command;
+	private final boolean accepted;
+	private final String reason;
+	private final long balanceCents;
+
+	private CommandResult(String command, boolean accepted, String reason, long balanceCents) {
+		this.command = command;
+		this.accepted = accepted;
+		this.reason = reason;
+		this.balanceCents = balanceCents;
+	}
+
+	static CommandResult accepted(String command, long balanceCents) {
+		return new CommandResult(command, true, null, balanceCents);
+	}
+
+	static CommandResult rejected(String command, String reason, long balanceCents) {
+		return new CommandResult(command, false, reason, balanceCents);
+	}
+
+	public String getCommand() {
+		return command;
+	}
+
+	public boolean isAccepted() {
+		return accepted;
+	}
+
+	// Why the command was rejected; null when it was accepted
+	public String getReason() {
+		return reason;
+	}
+
+	// Balance of the account the command acted on (the source account for a transfer)
+	// after it ran, or Money.INVALID when there is no such account.
+	public long getBalanceCents() {
+		return balanceCents;
+	}
+
+	@Override
+	public String toString() {
+		return (accepted ? "accepted: " : "rejected (" + reason + "): ") + command;
+	}
+}
@@ -1,39 +1,44 @@
 package banking;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class CommandValidator {
-	private final Bank bank;
+	private final Map<String, Validator> validators = new HashMap<>();
 
 	public CommandValidator(Bank bank) {
-		this.bank = bank;
+		register("create", new CreateCommandValidator(bank));
+		register("deposit", new DepositCommandValidator(bank));
+		register("withdraw", new WithdrawCommandValidator(bank));
+		register("passtime", new PassTimeCommandValidator());
+		register("transfer", new TransferCommandValidator(bank));
+	}
+
+	public void register(String verb, Validator validator) {
+		validators.put(verb, validator);
+	}
+
+	public boolean hasValidator(String verb) {
+		return validators.containsKey(verb);
 	}
 
 	public boolean validate(String command) {
+		return validateCommand(ParsedCommand.parse(command));
+	}
+
+	public boolean validateCommand(ParsedCommand command) {
 		if (command == null) {
 			System.out.println("Invalid command: null input");
 			return false;
 		}
 
-		command = command.trim();
-
-		if (command.startsWith("create")) {
-			CreateCommandValidator createValidator = new CreateCommandValidator(bank);
-			return createValidator.validate(command);
-		} else if (command.startsWith("deposit")) {
-			DepositCommandValidator depositValidator = new DepositCommandValidator(bank);
-			return depositValidator.validate(command);
-		} else if (command.startsWith("withdraw")) {
-			WithdrawCommandValidator withdrawValidator = new WithdrawCommandValidator(bank);
-			return withdrawValidator.validate(command);
-		} else if (command.startsWith("passtime")) {
-			PassTimeCommandValidator passTimeValidator = new PassTimeCommandValidator();
-			return passTimeValidator.validate(command);
-		} else if (command.startsWith("transfer")) {
-			TransferCommandValidator transferValidator = new TransferCommandValidator(bank);
-			return transferValidator.validate(command);
+		Validator validator = validators.get(command.getVerb());
+		if (validator != null) {
+			return validator.validate(command);
 		}
 
-		// If command doesn't match any known prefix
-		System.out.println("Unknown command: " + command);
+		// If command doesn't match any known verb
+		System.out.println("Unknown command: " + command.getCommand().trim());
 		return false;
 	}
 
@@ -0,0 +1,162 @@
+package banking;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+// A Bank that MasterControl can drive from many threads. Accounts are guarded by a
+// fixed set of lock stripes chosen by account id: commands on accounts in different
+// stripes run in parallel, transfer takes both stripes in index order, and passtime
+// (or anything unrecognised) takes every stripe so it sees a consistent bank.
+//
+// With lockFreeBalances, deposits and checking withdrawals skip the stripe lock and
+// change the balance by compare-and-set instead, so a hot account does not serialise
+// its callers. Every other change to a balance in Accounts is a compare-and-set too,
+// so the locked paths (transfers, savings withdrawals, passtime) cannot overwrite a
+// lock-free update, and an account a passtime closes is marked so a lock-free deposit
+// cannot land in it. The lazy engine is refused because it settles accounts on lookup,
+// and so is ArrayPassTimeEngine, which writes balances back with a plain store.
+public class ConcurrentBank extends Bank {
+	private static final int DEFAULT_STRIPES = 256;
+
+	private final ReentrantLock[] stripes;
+	private final boolean lockFreeBalances;
+
+	public ConcurrentBank() {
+		this(DEFAULT_STRIPES);
+	}
+
+	public ConcurrentBank(int stripeCount) {
+		this(stripeCount, false);
+	}
+
+	public ConcurrentBank(int stripeCount, boolean lockFreeBalances) {
+		super(new HashAccountStore(new ConcurrentHashMap<>()));
+		if (stripeCount < 1) {
+			throw new IllegalArgumentException("stripeCount must be positive");
+		}
+		stripes = new ReentrantLock[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+		this.lockFreeBalances = lockFreeBalances;
+	}
+
+	@Override
+	public boolean runLocked(ParsedCommand command, BooleanSupplier action) {
+		String verb = command == null ? "" : command.getVerb();
+		switch (verb) {
+		case "deposit":
+		case "withdraw":
+			if (command.size() > 1 && lockFreeBalances && runsLockFree(command)) {
+				return action.getAsBoolean();
+			}
+			if (command.size() > 1) {
+				return runLocked(stripeOf(command.getToken(1)), action);
+			}
+			break;
+		case "create":
+			if (command.size() > 2) {
+				return runLocked(stripeOf(command.getToken(2)), action);
+			}
+			break;
+		case "transfer":
+			if (command.size() > 2) {
+				int first = stripeOf(command.getToken(1));
+				int second = stripeOf(command.getToken(2));
+				return runLocked(Math.min(first, second), Math.max(first, second), action);
+			}
+			break;
+		default:
+			break;
+		}
+		return runLockedAll(action);
+	}
+
+	@Override
+	public boolean usesLockFreeBalances() {
+		return lockFreeBalances;
+	}
+
+	@Override
+	public void deferPassTime(int months) {
+		if (lockFreeBalances) {
+			throw new IllegalStateException("Deferred passtime needs per-account locks; use an eager engine");
+		}
+		super.deferPassTime(months);
+	}
+
+	@Override
+	public <T> T runExclusive(Supplier<T> action) {
+		return lockAll(action);
+	}
+
+	@Override
+	public int getNumberOfAccounts() {
+		return lockAll(() -> super.getNumberOfAccounts());
+	}
+
+	@Override
+	public void settleAll() {
+		lockAll(() -> {
+			super.settleAll();
+			return null;
+		});
+	}
+
+	// Savings withdrawals also update the monthly counter and CD withdrawals empty the
+	// account, so only checking withdrawals are a single compare-and-set.
+	private boolean runsLockFree(ParsedCommand command) {
+		if (command.getVerb().equals("deposit")) {
+			return true;
+		}
+		return getStore().get(command.getToken(1)) instanceof Checking;
+	}
+
+	int stripeOf(String id) {
+		int h = id.hashCode();
+		h ^= h >>> 16;
+		return (h & Integer.MAX_VALUE) % stripes.length;
+	}
+
+	private boolean runLocked(int stripe, BooleanSupplier action) {
+		ReentrantLock lock = stripes[stripe];
+		lock.lock();
+		try {
+			return action.getAsBoolean();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean runLocked(int lower, int higher, BooleanSupplier action) {
+		if (lower == higher) {
+			return runLocked(lower, action);
+		}
+		stripes[lower].lock();
+		try {
+			return runLocked(higher, action);
+		} finally {
+			stripes[lower].unlock();
+		}
+	}
+
+	private boolean runLockedAll(BooleanSupplier action) {
+		return lockAll(action::getAsBoolean);
+	}
+
+	private <T> T lockAll(Supplier<T> action) {
+		int locked = 0;
+		try {
+			for (; locked < stripes.length; locked++) {
+				stripes[locked].lock();
+			}
+			return action.get();
+		} finally {
+			while (locked > 0) {
+				stripes[--locked].unlock();
+			}
+		}
+	}
+}
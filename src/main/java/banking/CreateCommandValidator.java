@@ -1,6 +1,6 @@
 package banking;
 
-public class CreateCommandValidator {
+public class CreateCommandValidator implements Validator {
     private final Bank bank;
 
     public CreateCommandValidator(Bank bank) {
@@ -8,15 +8,18 @@ public class CreateCommandValidator {
     }
 
     public boolean validate(String command) {
-        String[] parts = command.trim().split("\\s+");
+        return validate(ParsedCommand.parse(command));
+    }
 
-        if (parts.length != 4) {
+    @Override
+    public boolean validate(ParsedCommand command) {
+        if (command.size() != 4) {
             return false;
         }
 
-        String accountType = parts[1].trim().toLowerCase();
-        String accountId = parts[2].trim();
-        String aprString = parts[3].trim();
+        String accountType = command.getToken(1).toLowerCase();
+        String accountId = command.getToken(2);
+        String aprString = command.getToken(3);
 
         if (!accountType.equals("cd") && !accountType.equals("checking") && !accountType.equals("saving")) {
             return false;
@@ -1,6 +1,6 @@
 package banking;
 // t
-public class DepositCommandValidator {
+public class DepositCommandValidator implements Validator {
     private final Bank bank;
 
     public DepositCommandValidator(Bank bank) {
@@ -8,16 +8,19 @@ public class DepositCommandValidator {
     }
 
     public boolean validate(String command) {
-        String[] parts = command.trim().split("\\s+");
+        return validate(ParsedCommand.parse(command));
+    }
 
-        if (parts.length != 3) {
+    @Override
+    public boolean validate(ParsedCommand command) {
+        if (command.size() != 3) {
             System.out.println("Invalid command length. Expected format: deposit <id> <amount>");
             return false;
         }
 
-        String keyword = parts[0].toLowerCase();
-        String accountId = parts[1];
-        String amountString = parts[2];
+        String keyword = command.getVerb().toLowerCase();
+        String accountId = command.getToken(1);
+        String amountString = command.getToken(2);
 
         if (!keyword.equals("deposit")) {
             System.out.println("Invalid command keyword. Expected 'deposit'");
@@ -29,30 +32,28 @@ public class DepositCommandValidator {
             return false;
         }
 
-        double amount;
-        try {
-            amount = Double.parseDouble(amountString);
-            if (amount < 0) {
-                System.out.println("Deposit amount cannot be negative.");
-                return false;
-            }
-        } catch (NumberFormatException e) {
+        long amount = Money.parseCents(amountString);
+        if (amount == Money.INVALID) {
             System.out.println("Invalid deposit amount: " + amountString);
             return false;
         }
+        if (amount < 0) {
+            System.out.println("Deposit amount cannot be negative.");
+            return false;
+        }
 
         String accountType = bank.getAccountType(accountId);
 
         switch (accountType.toLowerCase()) {
             case "savings":
-                if (amount > 2500 || amount == 0) {
+                if (amount > 2500 * Money.ONE_DOLLAR || amount == 0) {
                     System.out.println("Deposit amount exceeds the $2500 limit for savings accounts.");
                     return false;
                 }
                 break;
 
             case "checking":
-                if (amount > 1000 || amount == 0) {
+                if (amount > 1000 * Money.ONE_DOLLAR || amount == 0) {
                     System.out.println("Deposit amount exceeds the $1000 limit for checking accounts.");
                     return false;
                 }
@@ -0,0 +1,25 @@
+package banking;
+
+public class EagerPassTimeEngine implements PassTimeEngine {
+
+	@Override
+	public void passTime(Bank bank, int months) {
+		bank.settleAll();
+		bank.markAllDirty();
+
+		bank.getStore().updateAll(account -> {
+			long balance = account.getBalanceCents();
+			if (balance != 0 && balance < Accounts.LOW_BALANCE && account.chargesLowBalanceFee()) {
+				System.out.println("Deducted $25 from account: " + account.getId() + " due to low balance.");
+			}
+
+			if (account.accrue(months, bank.getInterestEngine())) {
+				System.out.println("Applied APR to account: " + account.getId() + ". New balance: "
+						+ account.getBalance());
+				return true;
+			}
+			System.out.println("Closing account: " + account.getId() + " due to zero balance.");
+			return false;
+		});
+	}
+}
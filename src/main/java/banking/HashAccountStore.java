@@ -0,0 +1,67 @@
+package banking;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// The default store: accounts stay on the heap in a map and get() returns the stored
+// instances, so callers change them in place. Backed by a ConcurrentMap it is safe to
+// use from several threads, as ConcurrentBank does.
+public class HashAccountStore implements AccountStore {
+	private final Map<String, Accounts> accounts;
+
+	public HashAccountStore() {
+		this(new HashMap<>());
+	}
+
+	public HashAccountStore(Map<String, Accounts> accounts) {
+		this.accounts = accounts;
+	}
+
+	@Override
+	public Accounts get(String id) {
+		return accounts.get(id);
+	}
+
+	@Override
+	public void put(String id, Accounts account) {
+		accounts.put(id, account);
+	}
+
+	@Override
+	public boolean remove(String id) {
+		return accounts.remove(id) != null;
+	}
+
+	@Override
+	public int size() {
+		return accounts.size();
+	}
+
+	@Override
+	public void forEach(Consumer<Accounts> action) {
+		accounts.values().forEach(action);
+	}
+
+	@Override
+	public void updateAll(Predicate<Accounts> update) {
+		accounts.values().removeIf(account -> !update.test(account));
+	}
+
+	@Override
+	public boolean isLive() {
+		return true;
+	}
+
+	@Override
+	public boolean isConcurrent() {
+		return accounts instanceof ConcurrentMap;
+	}
+
+	@Override
+	public Map<String, Accounts> asMap() {
+		return accounts;
+	}
+}
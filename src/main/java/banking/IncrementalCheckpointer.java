@@ -0,0 +1,243 @@
+package banking;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Incremental checkpoints of one bank into a directory of BankSnapshot files:
+//
+//     base-<n>.snapshot   every account, as of checkpoint n
+//     delta-<n>.snapshot  only the accounts changed since checkpoint n - 1
+//
+// checkpoint() writes a delta holding the bank's dirty accounts, or a new base when a
+// passtime touched everything. load() reads the newest base and applies the deltas after
+// it in order. The compactor folds deltas into a new base in the background. Merging a
+// delta into a base is the same as applying it, and load() skips deltas a base already
+// covers, so a crash at any point leaves a directory that loads the same state.
+public class IncrementalCheckpointer implements AutoCloseable {
+	private static final String BASE = "base-";
+	private static final String DELTA = "delta-";
+	private static final String SUFFIX = ".snapshot";
+
+	private final Path directory;
+	private final CommandProcessor processor;
+	private final ReentrantLock lock = new ReentrantLock();
+	private long sequence;
+	private Thread compactor;
+	private volatile boolean closed;
+
+	public IncrementalCheckpointer(Path directory, CommandProcessor processor) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.processor = processor;
+		for (Path file : list(BASE)) {
+			sequence = Math.max(sequence, sequenceOf(file));
+		}
+		for (Path file : list(DELTA)) {
+			sequence = Math.max(sequence, sequenceOf(file));
+		}
+		processor.getBank().trackDirtyAccounts();
+	}
+
+	// Loads the latest checkpointed state into the processor's bank, which must be empty,
+	// and returns the journal LSN it covers.
+	public long load() throws IOException {
+		Bank bank = processor.getBank();
+		if (bank.getNumberOfAccounts() != 0) {
+			throw new IllegalStateException("Checkpoints can only be loaded into an empty bank");
+		}
+		lock.lock();
+		try {
+			long journalLsn = 0;
+			long base = 0;
+			Path baseFile = latest(list(BASE));
+			if (baseFile != null) {
+				base = sequenceOf(baseFile);
+				journalLsn = BankSnapshot.load(baseFile, processor);
+			}
+			for (Path delta : sorted(list(DELTA))) {
+				if (sequenceOf(delta) > base) {
+					journalLsn = BankSnapshot.apply(delta, processor);
+				}
+			}
+			// What was just loaded is exactly what is on disk
+			bank.clearDirty();
+			return journalLsn;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Persists what changed since the last checkpoint. The bank must not change while this
+	// runs, so call it between commands, as MasterControl.start() returns.
+	public void checkpoint(long journalLsn) throws IOException {
+		Bank bank = processor.getBank();
+		lock.lock();
+		try {
+			long next = sequence + 1;
+			if (bank.isAllDirty()) {
+				BankSnapshot.write(file(BASE, next), processor, journalLsn);
+				sequence = next;
+				deleteCoveredBy(next);
+			} else if (!bank.getDirtyAccounts().isEmpty()) {
+				List<Accounts> changed = new ArrayList<>();
+				for (String id : bank.getDirtyAccounts()) {
+					// Accounts only disappear through passtime, which writes a new base instead
+					Accounts account = bank.getAccount(id);
+					if (account != null) {
+						changed.add(account);
+					}
+				}
+				BankSnapshot.write(file(DELTA, next), changed, processor.getCurrentDate(), journalLsn);
+				sequence = next;
+			}
+			bank.clearDirty();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Merges the newest base and every delta after it into a new base. Returns false when
+	// there was nothing to merge.
+	public boolean compact() throws IOException {
+		Path baseFile;
+		List<Path> deltas = new ArrayList<>();
+		lock.lock();
+		try {
+			baseFile = latest(list(BASE));
+			long base = baseFile == null ? 0 : sequenceOf(baseFile);
+			for (Path delta : sorted(list(DELTA))) {
+				if (sequenceOf(delta) > base) {
+					deltas.add(delta);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		if (deltas.isEmpty()) {
+			return false;
+		}
+
+		// The merge works on files only, so checkpoints can go on meanwhile
+		CommandProcessor merged = new CommandProcessor(new Bank());
+		long journalLsn = baseFile == null ? 0 : BankSnapshot.load(baseFile, merged);
+		for (Path delta : deltas) {
+			journalLsn = BankSnapshot.apply(delta, merged);
+		}
+		long covered = sequenceOf(deltas.get(deltas.size() - 1));
+		BankSnapshot.write(file(BASE, covered), merged, journalLsn);
+
+		lock.lock();
+		try {
+			deleteCoveredBy(covered);
+		} finally {
+			lock.unlock();
+		}
+		return true;
+	}
+
+	// Compacts every interval once at least minDeltas deltas have piled up
+	public void startCompactor(long intervalMillis, int minDeltas) {
+		if (compactor != null) {
+			throw new IllegalStateException("Compactor already running");
+		}
+		compactor = new Thread(() -> {
+			while (!closed) {
+				LockSupport.parkNanos(intervalMillis * 1_000_000);
+				try {
+					if (!closed && countDeltas() >= minDeltas) {
+						compact();
+					}
+				} catch (IOException e) {
+					// Leave the files as they are and try again next interval
+				}
+			}
+		}, "checkpoint-compactor");
+		compactor.setDaemon(true);
+		compactor.start();
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		if (compactor != null) {
+			LockSupport.unpark(compactor);
+			try {
+				compactor.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	int countDeltas() throws IOException {
+		lock.lock();
+		try {
+			Path baseFile = latest(list(BASE));
+			long base = baseFile == null ? 0 : sequenceOf(baseFile);
+			int count = 0;
+			for (Path delta : list(DELTA)) {
+				if (sequenceOf(delta) > base) {
+					count++;
+				}
+			}
+			return count;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Called with the lock held: removes the deltas and older bases a base at covered
+	// makes redundant, keeping any newer base a full checkpoint wrote meanwhile.
+	private void deleteCoveredBy(long covered) throws IOException {
+		Path newest = latest(list(BASE));
+		for (Path delta : list(DELTA)) {
+			if (sequenceOf(delta) <= covered) {
+				Files.deleteIfExists(delta);
+			}
+		}
+		for (Path base : list(BASE)) {
+			if (!base.equals(newest)) {
+				Files.deleteIfExists(base);
+			}
+		}
+	}
+
+	private Path file(String prefix, long number) {
+		return directory.resolve(prefix + number + SUFFIX);
+	}
+
+	private List<Path> list(String prefix) throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + SUFFIX)) {
+			for (Path file : stream) {
+				files.add(file);
+			}
+		}
+		return files;
+	}
+
+	private static List<Path> sorted(List<Path> files) {
+		files.sort((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)));
+		return files;
+	}
+
+	private static Path latest(List<Path> files) {
+		Path latest = null;
+		for (Path file : files) {
+			if (latest == null || sequenceOf(file) > sequenceOf(latest)) {
+				latest = file;
+			}
+		}
+		return latest;
+	}
+
+	private static long sequenceOf(Path file) {
+		String name = file.getFileName().toString();
+		return Long.parseLong(name.substring(name.indexOf('-') + 1, name.length() - SUFFIX.length()));
+	}
+}
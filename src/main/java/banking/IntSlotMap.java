@@ -0,0 +1,107 @@
+package banking;
+
+import java.util.Arrays;
+
+// Open-addressing (linear probing) map from non-negative int keys to int slots.
+public class IntSlotMap {
+	public static final int NO_SLOT = -1;
+	private static final int EMPTY = -1;
+	private static final double MAX_LOAD = 0.5;
+
+	private int[] keys;
+	private int[] slots;
+	private int mask;
+	private int size;
+
+	public IntSlotMap(int expectedSize) {
+		int capacity = Integer.highestOneBit((int) Math.max(4, Math.ceil(expectedSize / MAX_LOAD)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	public int get(int key) {
+		for (int i = index(key);; i = (i + 1) & mask) {
+			int current = keys[i];
+			if (current == key) {
+				return slots[i];
+			}
+			if (current == EMPTY) {
+				return NO_SLOT;
+			}
+		}
+	}
+
+	public void put(int key, int slot) {
+		if (key < 0) {
+			throw new IllegalArgumentException("Negative key: " + key);
+		}
+		if (size + 1 > keys.length * MAX_LOAD) {
+			resize(keys.length * 2);
+		}
+		int i = index(key);
+		while (keys[i] != EMPTY && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		if (keys[i] == EMPTY) {
+			keys[i] = key;
+			size++;
+		}
+		slots[i] = slot;
+	}
+
+	public int remove(int key) {
+		int i = index(key);
+		while (keys[i] != key) {
+			if (keys[i] == EMPTY) {
+				return NO_SLOT;
+			}
+			i = (i + 1) & mask;
+		}
+		int removed = slots[i];
+		size--;
+
+		// Backward-shift deletion keeps probe chains intact without tombstones
+		int hole = i;
+		for (int j = (hole + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+			int home = index(keys[j]);
+			if (((j - home) & mask) >= ((j - hole) & mask)) {
+				keys[hole] = keys[j];
+				slots[hole] = slots[j];
+				hole = j;
+			}
+		}
+		keys[hole] = EMPTY;
+		return removed;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private int index(int key) {
+		int h = key * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		int[] oldSlots = slots;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int j = index(oldKeys[i]);
+				while (keys[j] != EMPTY) {
+					j = (j + 1) & mask;
+				}
+				keys[j] = oldKeys[i];
+				slots[j] = oldSlots[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		slots = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		mask = capacity - 1;
+	}
+}
@@ -0,0 +1,97 @@
+package banking;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Monthly-compounded APR growth in closed form: balance * (1 + apr / 1200)^months.
+// Factors are cached per APR for every month count a passtime allows, so accruing
+// interest costs one multiply per account however many months pass.
+//
+// The cache is an open-addressing table keyed by the APR's bits, so a lookup boxes
+// nothing, and it holds at most MAX_CACHED_APRS rates. Once it is full, other rates are
+// computed with Math.pow each time, which gives the same factors. Entries are only ever
+// added, so the parallel passtime engine can share one engine.
+public class InterestEngine {
+	private static final int MAX_CACHED_MONTHS = 60;
+	private static final int MAX_CACHED_APRS = 128;
+	// Twice the entries it holds, so probe chains stay short
+	private static final int TABLE_SIZE = 2 * MAX_CACHED_APRS;
+
+	private final AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(TABLE_SIZE);
+	private final AtomicInteger cachedAprs = new AtomicInteger();
+
+	public double growthFactor(double apr, int months) {
+		if (months <= 0) {
+			return 1.0;
+		}
+		if (months > MAX_CACHED_MONTHS) {
+			return Math.pow(1 + apr / 100.0 / 12, months);
+		}
+		double[] factors = cachedFactors(apr);
+		return factors == null ? Math.pow(1 + apr / 100.0 / 12, months) : factors[months];
+	}
+
+	public long accrue(long balanceCents, double apr, int months) {
+		return Math.round(balanceCents * growthFactor(apr, months));
+	}
+
+	int cachedAprs() {
+		return cachedAprs.get();
+	}
+
+	// The factors for apr, caching them if there is room; null once the cache is full
+	private double[] cachedFactors(double apr) {
+		long bits = Double.doubleToLongBits(apr);
+		int start = slotOf(bits);
+		int slot = start;
+		Entry entry;
+		while ((entry = table.get(slot)) != null) {
+			if (entry.bits == bits) {
+				return entry.factors;
+			}
+			slot = (slot + 1) & (TABLE_SIZE - 1);
+		}
+
+		// Reserve room first, so the table never holds more than MAX_CACHED_APRS
+		if (cachedAprs.incrementAndGet() > MAX_CACHED_APRS) {
+			cachedAprs.decrementAndGet();
+			return null;
+		}
+		Entry added = new Entry(bits, factors(apr));
+		for (slot = start;; slot = (slot + 1) & (TABLE_SIZE - 1)) {
+			if (table.compareAndSet(slot, null, added)) {
+				return added.factors;
+			}
+			entry = table.get(slot);
+			if (entry.bits == bits) {
+				// Another thread cached the same rate first
+				cachedAprs.decrementAndGet();
+				return entry.factors;
+			}
+		}
+	}
+
+	private static int slotOf(long bits) {
+		long h = bits * 0x9E3779B97F4A7C15L;
+		return (int) (h >>> 32) & (TABLE_SIZE - 1);
+	}
+
+	private static double[] factors(double apr) {
+		double monthlyRate = apr / 100.0 / 12;
+		double[] factors = new double[MAX_CACHED_MONTHS + 1];
+		for (int months = 0; months <= MAX_CACHED_MONTHS; months++) {
+			factors[months] = Math.pow(1 + monthlyRate, months);
+		}
+		return factors;
+	}
+
+	private static final class Entry {
+		final long bits;
+		final double[] factors;
+
+		Entry(long bits, double[] factors) {
+			this.bits = bits;
+			this.factors = factors;
+		}
+	}
+}
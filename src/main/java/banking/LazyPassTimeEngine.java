@@ -0,0 +1,12 @@
+package banking;
+
+// Records the passtime on the bank and returns immediately. Each account catches up
+// on the fees and interest it missed the next time it is read or changed, or when
+// Bank.settleAll() sweeps the whole bank.
+public class LazyPassTimeEngine implements PassTimeEngine {
+
+	@Override
+	public void passTime(Bank bank, int months) {
+		bank.deferPassTime(months);
+	}
+}
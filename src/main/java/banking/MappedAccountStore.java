@@ -0,0 +1,64 @@
+package banking;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Accounts as fixed-width records in a memory-mapped file, one mapping per segment of
+// SegmentedAccountStore. The index is rebuilt by scanning the file when it is opened.
+// Changes reach the file through the page cache as they are made and close() forces
+// them to disk.
+public class MappedAccountStore extends SegmentedAccountStore implements Closeable {
+	private static final int DEFAULT_SEGMENT_RECORDS = 1 << 16;
+
+	private final FileChannel channel;
+
+	public MappedAccountStore(Path file) throws IOException {
+		this(file, DEFAULT_SEGMENT_RECORDS);
+	}
+
+	MappedAccountStore(Path file, int segmentRecords) throws IOException {
+		super(segmentRecords, 16);
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		long size = channel.size();
+		if (size % BankSnapshot.RECORD_SIZE != 0 || size / BankSnapshot.RECORD_SIZE > Integer.MAX_VALUE) {
+			channel.close();
+			throw new IOException("Not an account store: " + file);
+		}
+
+		int records = (int) (size / BankSnapshot.RECORD_SIZE);
+		while (segments().length * segmentBytes() < size) {
+			addSegment();
+		}
+		rebuildIndex(records);
+	}
+
+	// Mapping past the end of the file grows it, and the new records read as free
+	@Override
+	ByteBuffer newSegment(int index) {
+		try {
+			return channel.map(FileChannel.MapMode.READ_WRITE, index * segmentBytes(), segmentBytes());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot grow account store", e);
+		}
+	}
+
+	// Forces every change so far to disk
+	public void force() {
+		for (ByteBuffer segment : segments()) {
+			((MappedByteBuffer) segment).force();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		force();
+		channel.close();
+	}
+}
@@ -0,0 +1,185 @@
+package banking;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class MappedCommandReader implements Closeable {
+	private static final int DEFAULT_CHUNK_SIZE = Integer.MAX_VALUE;
+	private static final int INITIAL_TOKENS = 5;
+	private static final String[] KNOWN_WORDS = { "create", "deposit", "withdraw", "transfer", "passtime", "checking",
+			"savings", "cd" };
+
+	private final FileChannel channel;
+	private final long fileSize;
+	private final int chunkSize;
+	private MappedByteBuffer buffer;
+	private long bufferOffset;
+	private int position;
+	private int lineStart;
+	private int lineEnd;
+	private boolean skipLineFeed;
+	private byte[] scratch = new byte[64];
+	private ParsedCommand command;
+
+	public MappedCommandReader(Path file) throws IOException {
+		this(file, DEFAULT_CHUNK_SIZE);
+	}
+
+	MappedCommandReader(Path file, int chunkSize) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.fileSize = channel.size();
+		this.chunkSize = chunkSize;
+		map(0);
+	}
+
+	public boolean next() throws IOException {
+		nextWindowIfExhausted();
+		if (skipLineFeed) {
+			// The previous line ended on a \r that was the last byte of its window
+			skipLineFeed = false;
+			if (position < buffer.limit() && buffer.get(position) == '\n') {
+				position++;
+				nextWindowIfExhausted();
+			}
+		}
+		if (bufferOffset + position >= fileSize) {
+			command = null;
+			return false;
+		}
+
+		int end = findLineEnd(position);
+		if (runsPastWindow(end)) {
+			// Remap starting at this line; if it still does not fit, it never will
+			if (position != 0) {
+				map(bufferOffset + position);
+				end = findLineEnd(0);
+			}
+			if (runsPastWindow(end)) {
+				throw new IOException("Command line longer than " + chunkSize + " bytes at offset " + bufferOffset);
+			}
+		}
+
+		lineStart = position;
+		lineEnd = end;
+		position = skipLineSeparator(end);
+		command = tokenize(lineStart, lineEnd);
+		return true;
+	}
+
+	public ParsedCommand getCommand() {
+		return command;
+	}
+
+	public String getLine() {
+		return decode(lineStart, lineEnd - lineStart);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void map(long offset) throws IOException {
+		long length = Math.min(chunkSize, fileSize - offset);
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+		bufferOffset = offset;
+		position = 0;
+	}
+
+	private void nextWindowIfExhausted() throws IOException {
+		if (position == buffer.limit() && bufferOffset + position < fileSize) {
+			map(bufferOffset + position);
+		}
+	}
+
+	private boolean runsPastWindow(int end) {
+		return end == buffer.limit() && bufferOffset + end < fileSize;
+	}
+
+	private int findLineEnd(int from) {
+		int limit = buffer.limit();
+		for (int i = from; i < limit; i++) {
+			byte b = buffer.get(i);
+			if (b == '\n' || b == '\r') {
+				return i;
+			}
+		}
+		return limit;
+	}
+
+	private int skipLineSeparator(int end) {
+		int limit = buffer.limit();
+		if (end < limit && buffer.get(end++) == '\r') {
+			if (end == limit) {
+				skipLineFeed = true;
+			} else if (buffer.get(end) == '\n') {
+				end++;
+			}
+		}
+		return end;
+	}
+
+	private ParsedCommand tokenize(int from, int to) {
+		while (from < to && (buffer.get(from) & 0xff) <= ' ') {
+			from++;
+		}
+		while (to > from && (buffer.get(to - 1) & 0xff) <= ' ') {
+			to--;
+		}
+
+		String[] tokens = new String[INITIAL_TOKENS];
+		int size = 0;
+		int start = -1;
+		for (int i = from; i <= to; i++) {
+			boolean separator = i == to || ParsedCommand.isWhitespace((char) buffer.get(i));
+			if (separator && start >= 0) {
+				if (size == tokens.length) {
+					tokens = Arrays.copyOf(tokens, size * 2);
+				}
+				tokens[size++] = token(start, i - start);
+				start = -1;
+			} else if (!separator && start < 0) {
+				start = i;
+			}
+		}
+		return new ParsedCommand(null, tokens, size);
+	}
+
+	private String token(int start, int length) {
+		// Verbs and account types are shared constants; only ids and amounts become new Strings
+		for (String word : KNOWN_WORDS) {
+			if (matches(word, start, length)) {
+				return word;
+			}
+		}
+		return decode(start, length);
+	}
+
+	private boolean matches(String word, int start, int length) {
+		if (word.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (buffer.get(start + i) != word.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String decode(int start, int length) {
+		if (scratch.length < length) {
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		}
+		for (int i = 0; i < length; i++) {
+			scratch[i] = buffer.get(start + i);
+		}
+		return new String(scratch, 0, length, StandardCharsets.UTF_8);
+	}
+}
@@ -1,11 +1,19 @@
 package banking;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class MasterControl {
 	private CommandValidator commandValidator;
 	private CommandProcessor commandProcessor;
 	private CommandHistory commandHistory;
+	private CommandJournal journal;
 
 	public MasterControl(CommandValidator commandValidator, CommandProcessor commandProcessor,
 			CommandHistory commandHistory) {
@@ -14,14 +22,80 @@ public class MasterControl {
 		this.commandHistory = commandHistory;
 	}
 
+	// Accepted commands are appended to the journal, and each start() call returns only
+	// once they are durable. A bank with lock-free balances is refused: its deposits and
+	// withdrawals run outside any lock, so the journal could record two commands on one
+	// account in a different order than they ran, and replay would rebuild another bank.
+	public void setJournal(CommandJournal journal) {
+		if (journal != null && commandProcessor.getBank().usesLockFreeBalances()) {
+			throw new IllegalStateException("A journal needs a bank that locks every command");
+		}
+		this.journal = journal;
+	}
+
 	public List<String> start(List<String> input) {
-		for (String command : input) {
-			if (commandValidator.validate(command)) {
+		start(input.iterator(), commandHistory::addInvalidCommand);
+		return commandHistory.getInvalidCommands();
+	}
+
+	public void start(Iterator<String> input, Consumer<String> invalidCommands) {
+		while (input.hasNext()) {
+			String command = input.next();
+			if (!execute(command)) {
+				invalidCommands.accept(command);
+			}
+		}
+		syncJournal();
+	}
+
+	public void start(Stream<String> input, Consumer<String> invalidCommands) {
+		start(input.iterator(), invalidCommands);
+	}
+
+	public void start(Reader input, Consumer<String> invalidCommands) throws IOException {
+		BufferedReader reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+		String command;
+		while ((command = reader.readLine()) != null) {
+			if (!execute(command)) {
+				invalidCommands.accept(command);
+			}
+		}
+		syncJournal();
+	}
+
+	public void start(Path commandFile, Consumer<String> invalidCommands) throws IOException {
+		try (MappedCommandReader reader = new MappedCommandReader(commandFile)) {
+			while (reader.next()) {
+				if (!execute(reader.getCommand())) {
+					invalidCommands.accept(reader.getLine());
+				}
+			}
+		}
+		syncJournal();
+	}
+
+	private boolean execute(String command) {
+		return execute(ParsedCommand.parse(command));
+	}
+
+	private boolean execute(ParsedCommand command) {
+		return commandProcessor.getBank().runLocked(command, () -> {
+			if (commandValidator.validateCommand(command)) {
 				commandProcessor.process(command);
-			} else {
-				commandHistory.addInvalidCommand(command);
+				if (journal != null) {
+					// Appended under the locks runLocked holds, so per account the journal order
+					// is the execution order
+					journal.append(command.getCommand());
+				}
+				return true;
 			}
+			return false;
+		});
+	}
+
+	private void syncJournal() {
+		if (journal != null) {
+			journal.sync();
 		}
-		return commandHistory.getInvalidCommands();
 	}
 }
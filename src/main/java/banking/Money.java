@@ -0,0 +1,70 @@
+package banking;
+
+public final class Money {
+	public static final int SCALE = 2;
+	public static final long ONE_DOLLAR = 100;
+	public static final long INVALID = Long.MIN_VALUE;
+
+	private static final long MAX_DOLLARS = Long.MAX_VALUE / ONE_DOLLAR - 1;
+
+	private Money() {
+	}
+
+	public static long toCents(double dollars) {
+		return Math.round(dollars * ONE_DOLLAR);
+	}
+
+	public static double toDollars(long cents) {
+		return (double) cents / ONE_DOLLAR;
+	}
+
+	// Parses "[+-]digits[.digits]" straight to cents without allocating. Returns
+	// INVALID for anything else, including non-zero digits beyond the second
+	// decimal place.
+	public static long parseCents(CharSequence value) {
+		int length = value.length();
+		int i = 0;
+		boolean negative = false;
+		if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+			negative = value.charAt(i) == '-';
+			i++;
+		}
+
+		long dollars = 0;
+		int digits = 0;
+		for (; i < length && isDigit(value.charAt(i)); i++, digits++) {
+			if (dollars > MAX_DOLLARS / 10) {
+				return INVALID;
+			}
+			dollars = dollars * 10 + (value.charAt(i) - '0');
+		}
+
+		long cents = 0;
+		int places = 0;
+		if (i < length && value.charAt(i) == '.') {
+			for (i++; i < length && isDigit(value.charAt(i)); i++, digits++) {
+				int digit = value.charAt(i) - '0';
+				if (places < SCALE) {
+					cents = cents * 10 + digit;
+					places++;
+				} else if (digit != 0) {
+					return INVALID;
+				}
+			}
+		}
+		for (; places < SCALE; places++) {
+			cents *= 10;
+		}
+
+		if (i != length || digits == 0 || dollars > MAX_DOLLARS) {
+			return INVALID;
+		}
+
+		long total = dollars * ONE_DOLLAR + cents;
+		return negative ? -total : total;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
@@ -0,0 +1,32 @@
+package banking;
+
+import java.nio.ByteBuffer;
+
+// Accounts as fixed-width records in direct ByteBuffers, outside the Java heap. A
+// ledger of tens of millions of accounts then costs the garbage collector a handful of
+// buffer objects and the int arrays of the id index instead of an Accounts object, id
+// String and LocalDates per account, so old-gen marking no longer has to walk it.
+// Only the copies get() hands out live on the heap, and they die young.
+//
+// The memory is released when the store becomes unreachable, like any direct buffer.
+public class OffHeapAccountStore extends SegmentedAccountStore {
+	private static final int DEFAULT_SEGMENT_RECORDS = 1 << 16;
+
+	public OffHeapAccountStore() {
+		this(16);
+	}
+
+	public OffHeapAccountStore(int expectedAccounts) {
+		this(DEFAULT_SEGMENT_RECORDS, expectedAccounts);
+	}
+
+	OffHeapAccountStore(int segmentRecords, int expectedAccounts) {
+		super(segmentRecords, expectedAccounts);
+	}
+
+	// allocateDirect zeroes the memory, so every record starts out free
+	@Override
+	ByteBuffer newSegment(int index) {
+		return ByteBuffer.allocateDirect((int) segmentBytes());
+	}
+}
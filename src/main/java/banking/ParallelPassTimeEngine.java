@@ -0,0 +1,88 @@
+package banking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Applies passtime to partitions of the account population on a ForkJoinPool and
+// closes the accounts every partition reported as emptied once all of them finish.
+public class ParallelPassTimeEngine implements PassTimeEngine {
+	private static final int DEFAULT_PARTITION_SIZE = 16_384;
+
+	private final ForkJoinPool pool;
+	private final int partitionSize;
+
+	public ParallelPassTimeEngine() {
+		this(ForkJoinPool.commonPool(), DEFAULT_PARTITION_SIZE);
+	}
+
+	public ParallelPassTimeEngine(ForkJoinPool pool, int partitionSize) {
+		if (partitionSize < 1) {
+			throw new IllegalArgumentException("partitionSize must be positive");
+		}
+		this.pool = pool;
+		this.partitionSize = partitionSize;
+	}
+
+	@Override
+	public void passTime(Bank bank, int months) {
+		bank.settleAll();
+		bank.markAllDirty();
+
+		AccountStore store = bank.getStore();
+		List<Accounts> all = new ArrayList<>(store.size());
+		store.forEach(all::add);
+		Accounts[] accounts = all.toArray(new Accounts[0]);
+		List<String> accountsToRemove = pool
+				.invoke(new Partition(accounts, 0, accounts.length, months, bank.getInterestEngine()));
+
+		if (!store.isLive()) {
+			for (Accounts account : accounts) {
+				store.put(account.getId(), account);
+			}
+		}
+		for (String accountId : accountsToRemove) {
+			store.remove(accountId);
+		}
+	}
+
+	private class Partition extends RecursiveTask<List<String>> {
+		private static final long serialVersionUID = 1L;
+
+		private final Accounts[] accounts;
+		private final int from;
+		private final int to;
+		private final int months;
+		private final InterestEngine interestEngine;
+
+		Partition(Accounts[] accounts, int from, int to, int months, InterestEngine interestEngine) {
+			this.accounts = accounts;
+			this.from = from;
+			this.to = to;
+			this.months = months;
+			this.interestEngine = interestEngine;
+		}
+
+		@Override
+		protected List<String> compute() {
+			if (to - from <= partitionSize) {
+				List<String> closed = new ArrayList<>();
+				for (int i = from; i < to; i++) {
+					if (!accounts[i].accrue(months, interestEngine)) {
+						closed.add(accounts[i].getId());
+					}
+				}
+				return closed;
+			}
+
+			int middle = (from + to) >>> 1;
+			Partition left = new Partition(accounts, from, middle, months, interestEngine);
+			Partition right = new Partition(accounts, middle, to, months, interestEngine);
+			left.fork();
+			List<String> closed = right.compute();
+			closed.addAll(left.join());
+			return closed;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package banking;
+
+import java.util.Arrays;
+
+public final class ParsedCommand {
+	private static final int INITIAL_TOKENS = 5; // "create cd <id> <apr> <balance>" is the longest command
+
+	private final String command;
+	private final String[] tokens;
+	private final int size;
+
+	ParsedCommand(String command, String[] tokens, int size) {
+		this.command = command;
+		this.tokens = tokens;
+		this.size = size;
+	}
+
+	public static ParsedCommand parse(String command) {
+		if (command == null) {
+			return null;
+		}
+
+		String[] tokens = new String[INITIAL_TOKENS];
+		int size = 0;
+		int begin = 0;
+		int end = command.length();
+		while (begin < end && command.charAt(begin) <= ' ') {
+			begin++;
+		}
+		while (end > begin && command.charAt(end - 1) <= ' ') {
+			end--;
+		}
+
+		// Single pass: same tokens as command.trim().split("\\s+") without the regex
+		int start = -1;
+		for (int i = begin; i <= end; i++) {
+			boolean separator = i == end || isWhitespace(command.charAt(i));
+			if (separator && start >= 0) {
+				if (size == tokens.length) {
+					tokens = Arrays.copyOf(tokens, size * 2);
+				}
+				tokens[size++] = command.substring(start, i);
+				start = -1;
+			} else if (!separator && start < 0) {
+				start = i;
+			}
+		}
+
+		return new ParsedCommand(command, tokens, size);
+	}
+
+	static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	public String getCommand() {
+		if (command == null) {
+			// Commands read straight from bytes keep only their tokens
+			return String.join(" ", Arrays.asList(tokens).subList(0, size));
+		}
+		return command;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public String getToken(int index) {
+		if (index >= size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		return tokens[index];
+	}
+
+	public String getVerb() {
+		return size == 0 ? "" : tokens[0];
+	}
+}
@@ -1,18 +1,21 @@
 package banking;
 
-public class PassTimeCommandValidator {
+public class PassTimeCommandValidator implements Validator {
 
     public boolean validate(String command) {
-        // Command format validation: "passtime <months>"
-        String[] parts = command.trim().split("\\s+"); // Split by one or more spaces
+        return validate(ParsedCommand.parse(command));
+    }
 
-        if (parts.length != 2) {
+    @Override
+    public boolean validate(ParsedCommand command) {
+        // Command format validation: "passtime <months>"
+        if (command.size() != 2) {
             System.out.println("Invalid command format. Correct format: passtime <months>");
             return false;
         }
 
         try {
-            int monthsToPass = Integer.parseInt(parts[1]);
+            int monthsToPass = Integer.parseInt(command.getToken(1));
 
             // Ensure monthsToPass is between 1 and 60
             if (monthsToPass <= 0 || monthsToPass > 60) {
@@ -20,7 +23,7 @@ public class PassTimeCommandValidator {
                 return false;
             }
         } catch (NumberFormatException e) {
-            System.out.println("Invalid months value: " + parts[1] + ". Must be a valid integer.");
+            System.out.println("Invalid months value: " + command.getToken(1) + ". Must be a valid integer.");
             return false;
         }
 
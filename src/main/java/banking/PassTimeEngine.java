@@ -0,0 +1,5 @@
+package banking;
+
+public interface PassTimeEngine {
+	void passTime(Bank bank, int months);
+}
@@ -0,0 +1,216 @@
+package banking;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// MasterControl as a pipeline over one preallocated ring of slots, in the style of the
+// LMAX Disruptor. The calling thread publishes command text into slots; a parse thread
+// tokenizes them, an execute thread validates and processes them, and an output thread
+// reports invalid commands in input order. Each stage follows the one before it through
+// a sequence counter and handles everything published so far as one batch. A stage with
+// nothing to do spins briefly and then parks until the stage before it publishes more.
+//
+// A command that throws in any stage is passed along without being executed or
+// reported, so the pipeline keeps moving, and start() rethrows the first such failure.
+//
+// Validation and processing share a stage on purpose: validators read (and some change)
+// the balances the previous command left behind, so validating command n+1 before n
+// has been processed would give different answers than MasterControl.
+public class PipelinedMasterControl implements AutoCloseable {
+	private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+	private final CommandValidator commandValidator;
+	private final CommandProcessor commandProcessor;
+	private final CommandHistory commandHistory;
+	private final Slot[] slots;
+	private final int mask;
+
+	private final Sequence published = new Sequence();
+	private final Sequence parsed = new Sequence();
+	private final Sequence executed = new Sequence();
+	private final Sequence reported = new Sequence();
+	private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+	private final Thread[] stages;
+	private volatile boolean running = true;
+	private volatile Consumer<String> invalidCommands;
+
+	public PipelinedMasterControl(CommandValidator commandValidator, CommandProcessor commandProcessor,
+			CommandHistory commandHistory) {
+		this(commandValidator, commandProcessor, commandHistory, DEFAULT_BUFFER_SIZE);
+	}
+
+	public PipelinedMasterControl(CommandValidator commandValidator, CommandProcessor commandProcessor,
+			CommandHistory commandHistory, int bufferSize) {
+		if (bufferSize < 2 || Integer.bitCount(bufferSize) != 1) {
+			throw new IllegalArgumentException("bufferSize must be a power of two of at least 2");
+		}
+		this.commandValidator = commandValidator;
+		this.commandProcessor = commandProcessor;
+		this.commandHistory = commandHistory;
+		slots = new Slot[bufferSize];
+		for (int i = 0; i < bufferSize; i++) {
+			slots[i] = new Slot();
+		}
+		mask = bufferSize - 1;
+
+		stages = new Thread[] { new Thread(() -> runStage(published, parsed, this::parse), "pipeline-parse"),
+				new Thread(() -> runStage(parsed, executed, this::execute), "pipeline-execute"),
+				new Thread(() -> runStage(executed, reported, this::report), "pipeline-output") };
+		for (Thread stage : stages) {
+			stage.setDaemon(true);
+			stage.start();
+		}
+	}
+
+	public List<String> start(List<String> input) {
+		start(input.iterator(), commandHistory::addInvalidCommand);
+		return commandHistory.getInvalidCommands();
+	}
+
+	// Blocks until every command has gone through the pipeline. invalidCommands is called
+	// from the output thread, one command at a time and in input order.
+	public void start(Iterator<String> input, Consumer<String> invalidCommands) {
+		this.invalidCommands = invalidCommands;
+		long next = published.get();
+		while (input.hasNext()) {
+			String command = input.next();
+			// Wait until the output stage has freed the slot from one lap ago
+			long done;
+			for (int idle = 0; next - (done = reported.get()) >= slots.length; idle++) {
+				idle(reported, done, idle);
+			}
+			Slot slot = slots[(int) next & mask];
+			slot.text = command;
+			slot.failed = false;
+			published.set(++next);
+		}
+		long done;
+		for (int idle = 0; (done = reported.get()) < next; idle++) {
+			idle(reported, done, idle);
+		}
+
+		RuntimeException error = failure.getAndSet(null);
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	@Override
+	public void close() {
+		running = false;
+		for (Thread stage : stages) {
+			LockSupport.unpark(stage);
+		}
+		for (Thread stage : stages) {
+			try {
+				stage.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private void runStage(Sequence upstream, Sequence own, Consumer<Slot> handler) {
+		long next = own.get();
+		int idle = 0;
+		while (running) {
+			long available = upstream.get();
+			if (available == next) {
+				idle(upstream, next, idle++);
+				continue;
+			}
+			idle = 0;
+			for (; next < available; next++) {
+				Slot slot = slots[(int) next & mask];
+				try {
+					handler.accept(slot);
+				} catch (RuntimeException e) {
+					slot.failed = true;
+					failure.compareAndSet(null, e);
+				}
+			}
+			own.set(next);
+		}
+	}
+
+	private void parse(Slot slot) {
+		slot.command = ParsedCommand.parse(slot.text);
+	}
+
+	private void execute(Slot slot) {
+		if (slot.failed) {
+			return;
+		}
+		slot.valid = commandValidator.validateCommand(slot.command);
+		if (slot.valid) {
+			commandProcessor.process(slot.command);
+		}
+	}
+
+	private void report(Slot slot) {
+		try {
+			if (!slot.failed && !slot.valid) {
+				invalidCommands.accept(slot.text);
+			}
+		} finally {
+			slot.text = null;
+			slot.command = null;
+		}
+	}
+
+	// Spin briefly, then yield, then park until upstream moves past seen. The waiter is
+	// registered before upstream is read again and set() reads it after writing, so
+	// either the waiter sees the new value or set() sees the waiter and unparks it.
+	private void idle(Sequence upstream, long seen, int attempt) {
+		if (attempt < 100) {
+			Thread.onSpinWait();
+		} else if (attempt < 200) {
+			Thread.yield();
+		} else {
+			upstream.waiter = Thread.currentThread();
+			if (upstream.get() == seen && running) {
+				LockSupport.park(this);
+			}
+			upstream.waiter = null;
+		}
+	}
+
+	private static final class Slot {
+		String text;
+		ParsedCommand command;
+		boolean valid;
+		boolean failed; // a stage threw on this command, see start()
+	}
+
+	// Padding on both sides keeps each stage's counter on its own cache line
+	@SuppressWarnings("unused")
+	private static class LeftPadding {
+		long p1, p2, p3, p4, p5, p6, p7;
+	}
+
+	private static class SequenceValue extends LeftPadding {
+		volatile long value;
+		volatile Thread waiter; // the one thread that follows this sequence, while parked
+	}
+
+	@SuppressWarnings("unused")
+	private static final class Sequence extends SequenceValue {
+		long p9, p10, p11, p12, p13, p14, p15;
+
+		long get() {
+			return value;
+		}
+
+		void set(long value) {
+			this.value = value;
+			Thread parked = waiter;
+			if (parked != null) {
+				LockSupport.unpark(parked);
+			}
+		}
+	}
+}
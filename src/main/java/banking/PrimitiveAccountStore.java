@@ -0,0 +1,261 @@
+package banking;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Struct-of-arrays account storage keyed by the 8-digit account id as an int.
+// Accounts handed out by get() are detached copies; write changes back with put().
+public class PrimitiveAccountStore implements AccountStore {
+	static final byte CHECKING = 1;
+	static final byte SAVINGS = 2;
+	static final byte CD = 3;
+
+	private static final int ID_LENGTH = 8;
+	private static final long NO_DATE = Long.MIN_VALUE;
+
+	private final IntSlotMap index;
+	private int[] ids;
+	private byte[] types;
+	private long[] balances;
+	private double[] aprs;
+	private int[] monthlyWithdrawals;
+	private long[] lastWithdrawalDays;
+	private long[] startDays;
+	private long[] currentDays;
+	private int[] freeSlots = new int[16];
+	private int freeCount;
+	private int usedSlots;
+
+	public PrimitiveAccountStore() {
+		this(16);
+	}
+
+	public PrimitiveAccountStore(int expectedAccounts) {
+		int capacity = Math.max(16, expectedAccounts);
+		index = new IntSlotMap(capacity);
+		ids = new int[capacity];
+		types = new byte[capacity];
+		balances = new long[capacity];
+		aprs = new double[capacity];
+		monthlyWithdrawals = new int[capacity];
+		lastWithdrawalDays = new long[capacity];
+		startDays = new long[capacity];
+		currentDays = new long[capacity];
+	}
+
+	public static int parseId(String id) {
+		if (id == null || id.length() != ID_LENGTH) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = 0; i < ID_LENGTH; i++) {
+			char c = id.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	public static String formatId(int id) {
+		String digits = Integer.toString(id);
+		StringBuilder builder = new StringBuilder(ID_LENGTH);
+		for (int i = digits.length(); i < ID_LENGTH; i++) {
+			builder.append('0');
+		}
+		return builder.append(digits).toString();
+	}
+
+	@Override
+	public int size() {
+		return index.size();
+	}
+
+	public boolean contains(String id) {
+		return slotOf(id) != IntSlotMap.NO_SLOT;
+	}
+
+	@Override
+	public void put(String id, Accounts account) {
+		if (!id.equals(account.getId())) {
+			throw new IllegalArgumentException("Account " + account.getId() + " cannot be stored as " + id);
+		}
+		put(account);
+	}
+
+	public void put(Accounts account) {
+		int id = parseId(account.getId());
+		if (id < 0) {
+			throw new IllegalArgumentException("Account id must be 8 digits: " + account.getId());
+		}
+		int slot = index.get(id);
+		if (slot == IntSlotMap.NO_SLOT) {
+			slot = allocateSlot();
+			index.put(id, slot);
+		}
+		write(slot, id, account);
+	}
+
+	@Override
+	public Accounts get(String id) {
+		int slot = slotOf(id);
+		return slot == IntSlotMap.NO_SLOT ? null : read(slot);
+	}
+
+	@Override
+	public boolean remove(String id) {
+		int numericId = parseId(id);
+		int slot = numericId < 0 ? IntSlotMap.NO_SLOT : index.remove(numericId);
+		if (slot == IntSlotMap.NO_SLOT) {
+			return false;
+		}
+		if (freeCount == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+		}
+		freeSlots[freeCount++] = slot;
+		types[slot] = 0;
+		return true;
+	}
+
+	@Override
+	public void forEach(Consumer<Accounts> action) {
+		for (int slot = 0; slot < usedSlots; slot++) {
+			if (types[slot] != 0) {
+				action.accept(read(slot));
+			}
+		}
+	}
+
+	@Override
+	public void updateAll(Predicate<Accounts> update) {
+		// Removing only frees slots, so the scan never meets a slot twice
+		for (int slot = 0; slot < usedSlots; slot++) {
+			if (types[slot] == 0) {
+				continue;
+			}
+			Accounts account = read(slot);
+			if (update.test(account)) {
+				write(slot, ids[slot], account);
+			} else {
+				remove(account.getId());
+			}
+		}
+	}
+
+	public long getBalanceCents(String id) {
+		return balances[requireSlot(id)];
+	}
+
+	public void setBalanceCents(String id, long balanceCents) {
+		balances[requireSlot(id)] = balanceCents;
+	}
+
+	public void addDepositCents(String id, long amount) {
+		balances[requireSlot(id)] += amount;
+	}
+
+	public void withdrawCents(String id, long amount) {
+		int slot = requireSlot(id);
+		balances[slot] = Math.max(0, balances[slot] - amount);
+	}
+
+	public String getAccountType(String id) {
+		int slot = slotOf(id);
+		if (slot == IntSlotMap.NO_SLOT) {
+			return null;
+		}
+		switch (types[slot]) {
+		case CHECKING:
+			return "checking";
+		case SAVINGS:
+			return "savings";
+		default:
+			return "certificateofdeposit";
+		}
+	}
+
+	private int slotOf(String id) {
+		int numericId = parseId(id);
+		return numericId < 0 ? IntSlotMap.NO_SLOT : index.get(numericId);
+	}
+
+	private int requireSlot(String id) {
+		int slot = slotOf(id);
+		if (slot == IntSlotMap.NO_SLOT) {
+			throw new IllegalArgumentException("Account with ID " + id + " does not exist.");
+		}
+		return slot;
+	}
+
+	private int allocateSlot() {
+		if (freeCount > 0) {
+			return freeSlots[--freeCount];
+		}
+		if (usedSlots == ids.length) {
+			grow(ids.length * 2);
+		}
+		return usedSlots++;
+	}
+
+	private void grow(int capacity) {
+		ids = Arrays.copyOf(ids, capacity);
+		types = Arrays.copyOf(types, capacity);
+		balances = Arrays.copyOf(balances, capacity);
+		aprs = Arrays.copyOf(aprs, capacity);
+		monthlyWithdrawals = Arrays.copyOf(monthlyWithdrawals, capacity);
+		lastWithdrawalDays = Arrays.copyOf(lastWithdrawalDays, capacity);
+		startDays = Arrays.copyOf(startDays, capacity);
+		currentDays = Arrays.copyOf(currentDays, capacity);
+	}
+
+	private void write(int slot, int id, Accounts account) {
+		ids[slot] = id;
+		balances[slot] = account.getBalanceCents();
+		aprs[slot] = account.getApr();
+		if (account instanceof Savings) {
+			Savings savings = (Savings) account;
+			types[slot] = SAVINGS;
+			monthlyWithdrawals[slot] = savings.getMonthlyWithdrawals();
+			lastWithdrawalDays[slot] = toDay(savings.getLastWithdrawalDate());
+		} else if (account instanceof CertificateOfDeposit) {
+			CertificateOfDeposit cd = (CertificateOfDeposit) account;
+			types[slot] = CD;
+			startDays[slot] = toDay(cd.getStartDate());
+			currentDays[slot] = toDay(cd.getCurrentDate());
+		} else {
+			types[slot] = CHECKING;
+		}
+	}
+
+	private Accounts read(int slot) {
+		String id = formatId(ids[slot]);
+		switch (types[slot]) {
+		case SAVINGS:
+			Savings savings = new Savings(aprs[slot], id);
+			savings.setBalanceCents(balances[slot]);
+			savings.setMonthlyWithdrawals(monthlyWithdrawals[slot]);
+			savings.setLastWithdrawalDate(toDate(lastWithdrawalDays[slot]));
+			return savings;
+		case CD:
+			CertificateOfDeposit cd = new CertificateOfDeposit(0, aprs[slot], id);
+			cd.setBalanceCents(balances[slot]);
+			cd.restoreDates(toDate(startDays[slot]), toDate(currentDays[slot]));
+			return cd;
+		default:
+			Checking checking = new Checking(aprs[slot], id);
+			checking.setBalanceCents(balances[slot]);
+			return checking;
+		}
+	}
+
+	private static long toDay(LocalDate date) {
+		return date == null ? NO_DATE : date.toEpochDay();
+	}
+
+	private static LocalDate toDate(long day) {
+		return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+	}
+}
@@ -0,0 +1,170 @@
+package banking;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Restart path: load the latest image (a BankSnapshot, or IncrementalCheckpointer.load())
+// and replay the CommandJournal records written after it.
+//
+// Replay is partitioned by account id. Commands touching one account, and transfers
+// whose two accounts share a partition, are queued per partition and the partitions run
+// in parallel; a transfer across partitions, a passtime or anything unrecognised is a
+// barrier that waits for every partition to drain and then runs alone. Per account the
+// order is the journal's, which is all validation and processing depend on.
+//
+// Parallel replay needs a bank backed by a concurrent store, such as ConcurrentBank, since
+// creates add accounts from several threads; any other bank is replayed on one thread.
+public class RecoveryManager implements AutoCloseable {
+	private static final int MAX_SEGMENT = 1 << 16;
+
+	private final int partitions;
+	private final ExecutorService executor;
+
+	public RecoveryManager() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public RecoveryManager(int partitions) {
+		if (partitions < 1) {
+			throw new IllegalArgumentException("partitions must be positive");
+		}
+		this.partitions = partitions;
+		this.executor = partitions == 1 ? null : Executors.newFixedThreadPool(partitions);
+	}
+
+	// Loads snapshot if it exists, replays journal after it, and returns the last LSN
+	// replayed (or the snapshot's LSN when the journal has nothing newer).
+	public long recover(Path snapshot, Path journal, CommandProcessor processor) throws IOException {
+		long imageLsn = Files.exists(snapshot) ? BankSnapshot.load(snapshot, processor) : 0;
+		return replay(journal, imageLsn, processor);
+	}
+
+	public long replay(Path journal, long afterLsn, CommandProcessor processor) throws IOException {
+		Replay replay = new Replay(processor);
+		long lastLsn = CommandJournal.replay(journal, afterLsn, (command, lsn) -> replay.add(command));
+		replay.drain();
+		return Math.max(afterLsn, lastLsn);
+	}
+
+	@Override
+	public void close() {
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	private final class Replay {
+		private final CommandValidator validator;
+		private final CommandProcessor processor;
+		private final boolean parallel;
+		private final List<List<ParsedCommand>> segment = new ArrayList<>();
+		private int buffered;
+
+		Replay(CommandProcessor processor) {
+			this.processor = processor;
+			this.validator = new CommandValidator(processor.getBank());
+			this.parallel = executor != null && processor.getBank().getStore().isConcurrent();
+			for (int i = 0; i < partitions; i++) {
+				segment.add(new ArrayList<>());
+			}
+		}
+
+		void add(String text) {
+			ParsedCommand command = ParsedCommand.parse(text);
+			int partition = parallel ? partitionOf(command) : 0;
+			if (partition < 0) {
+				drain();
+				execute(command);
+				return;
+			}
+			segment.get(partition).add(command);
+			if (++buffered == MAX_SEGMENT) {
+				drain();
+			}
+		}
+
+		// Runs everything queued so far, one task per non-empty partition
+		void drain() {
+			if (buffered == 0) {
+				return;
+			}
+			if (!parallel) {
+				for (ParsedCommand command : segment.get(0)) {
+					execute(command);
+				}
+			} else {
+				List<Future<?>> running = new ArrayList<>();
+				for (List<ParsedCommand> commands : segment) {
+					if (!commands.isEmpty()) {
+						running.add(executor.submit((Callable<Void>) () -> {
+							for (ParsedCommand command : commands) {
+								execute(command);
+							}
+							return null;
+						}));
+					}
+				}
+				awaitAll(running);
+			}
+			for (List<ParsedCommand> commands : segment) {
+				commands.clear();
+			}
+			buffered = 0;
+		}
+
+		private void execute(ParsedCommand command) {
+			if (validator.validateCommand(command)) {
+				processor.process(command);
+			}
+		}
+
+		// The partition a command can replay in, or -1 when it has to be a barrier
+		private int partitionOf(ParsedCommand command) {
+			switch (command.getVerb()) {
+			case "deposit":
+			case "withdraw":
+				return command.size() > 1 ? partitionOf(command.getToken(1)) : -1;
+			case "create":
+				return command.size() > 2 ? partitionOf(command.getToken(2)) : -1;
+			case "transfer":
+				if (command.size() > 2) {
+					int from = partitionOf(command.getToken(1));
+					return from == partitionOf(command.getToken(2)) ? from : -1;
+				}
+				return -1;
+			default:
+				return -1;
+			}
+		}
+
+		private int partitionOf(String id) {
+			int h = id.hashCode();
+			h ^= h >>> 16;
+			return (h & Integer.MAX_VALUE) % partitions;
+		}
+
+		private void awaitAll(List<Future<?>> running) {
+			try {
+				for (Future<?> future : running) {
+					future.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted during recovery", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IllegalStateException("Replay failed", e.getCause());
+			}
+		}
+	}
+}
@@ -8,7 +8,7 @@ public class Savings extends Accounts {
 	private LocalDate lastWithdrawalDate; // To store the date of the last withdrawal
 
 	public Savings(double apr, String id) {
-		super(0.0, apr, id);
+		super(apr, id);
 		this.monthlyWithdrawals = 0;
 		this.lastWithdrawalDate = null; // No withdrawal made yet
 	}
@@ -26,13 +26,21 @@ public class Savings extends Accounts {
 		monthlyWithdrawals++;
 	}
 
+	int getMonthlyWithdrawals() {
+		return monthlyWithdrawals;
+	}
+
+	void setMonthlyWithdrawals(int monthlyWithdrawals) {
+		this.monthlyWithdrawals = monthlyWithdrawals;
+	}
+
 	@Override
-	public void withdraw(double amount) {
+	public void withdrawCents(long amount) {
 		if (hasExceededMonthlyWithdrawalLimit()) {
 			System.out.println("Monthly withdrawal limit reached for savings account.");
 			return;
 		}
-		super.withdraw(amount);
+		super.withdrawCents(amount);
 		incrementMonthlyWithdrawals();
 		lastWithdrawalDate = LocalDate.now(); // Set the last withdrawal date
 	}
@@ -0,0 +1,180 @@
+package banking;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Accounts as fixed-width records in BankSnapshot's layout, spread over equally sized
+// buffers that are added one at a time as the store grows. A type byte of 0 marks a
+// free slot, and an IntSlotMap from the numeric id to its slot finds the records.
+// Subclasses decide where the buffers live.
+//
+// get() hands out detached copies and ids must be 8 digits. Not thread-safe.
+abstract class SegmentedAccountStore implements AccountStore {
+	private static final int RECORD_SIZE = BankSnapshot.RECORD_SIZE;
+	private static final int TYPE_OFFSET = Integer.BYTES;
+
+	private final int segmentRecords;
+	private final IntSlotMap index;
+	private ByteBuffer[] segments = new ByteBuffer[0];
+	private int[] freeSlots = new int[16];
+	private int freeCount;
+	private int usedSlots;
+
+	SegmentedAccountStore(int segmentRecords, int expectedAccounts) {
+		if (segmentRecords < 1 || (long) segmentRecords * RECORD_SIZE > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("segmentRecords must be positive and fit a buffer");
+		}
+		this.segmentRecords = segmentRecords;
+		index = new IntSlotMap(Math.max(16, expectedAccounts));
+	}
+
+	// A zeroed buffer of segmentBytes() for the segment at position index
+	abstract ByteBuffer newSegment(int index);
+
+	@Override
+	public Accounts get(String id) {
+		int slot = slotOf(id);
+		return slot == IntSlotMap.NO_SLOT ? null : read(slot);
+	}
+
+	@Override
+	public void put(String id, Accounts account) {
+		int numericId = PrimitiveAccountStore.parseId(id);
+		if (numericId < 0) {
+			throw new IllegalArgumentException("Account id must be 8 digits: " + id);
+		}
+		if (!id.equals(account.getId())) {
+			throw new IllegalArgumentException("Account " + account.getId() + " cannot be stored as " + id);
+		}
+		int slot = index.get(numericId);
+		if (slot == IntSlotMap.NO_SLOT) {
+			slot = allocateSlot();
+			index.put(numericId, slot);
+		}
+		write(slot, account);
+	}
+
+	@Override
+	public boolean remove(String id) {
+		int numericId = PrimitiveAccountStore.parseId(id);
+		int slot = numericId < 0 ? IntSlotMap.NO_SLOT : index.remove(numericId);
+		if (slot == IntSlotMap.NO_SLOT) {
+			return false;
+		}
+		segment(slot).put(offset(slot) + TYPE_OFFSET, (byte) 0);
+		free(slot);
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return index.size();
+	}
+
+	@Override
+	public void forEach(Consumer<Accounts> action) {
+		for (int slot = 0; slot < usedSlots; slot++) {
+			if (typeOf(slot) != 0) {
+				action.accept(read(slot));
+			}
+		}
+	}
+
+	@Override
+	public void updateAll(Predicate<Accounts> update) {
+		// Removing only frees slots, so the scan never meets a slot twice
+		for (int slot = 0; slot < usedSlots; slot++) {
+			if (typeOf(slot) == 0) {
+				continue;
+			}
+			Accounts account = read(slot);
+			if (update.test(account)) {
+				write(slot, account);
+			} else {
+				remove(account.getId());
+			}
+		}
+	}
+
+	final long segmentBytes() {
+		return (long) segmentRecords * RECORD_SIZE;
+	}
+
+	final ByteBuffer[] segments() {
+		return segments;
+	}
+
+	final void addSegment() {
+		ByteBuffer segment = newSegment(segments.length);
+		segments = Arrays.copyOf(segments, segments.length + 1);
+		segments[segments.length - 1] = segment;
+	}
+
+	// Indexes a store whose segments already hold this many records, as after reopening a
+	// file. Free slots below the last account are reused before the store grows.
+	final void rebuildIndex(int records) {
+		for (int slot = 0; slot < records; slot++) {
+			if (typeOf(slot) != 0) {
+				index.put(idOf(slot), slot);
+				usedSlots = slot + 1;
+			}
+		}
+		for (int slot = 0; slot < usedSlots; slot++) {
+			if (typeOf(slot) == 0) {
+				free(slot);
+			}
+		}
+	}
+
+	private int slotOf(String id) {
+		int numericId = PrimitiveAccountStore.parseId(id);
+		return numericId < 0 ? IntSlotMap.NO_SLOT : index.get(numericId);
+	}
+
+	private int allocateSlot() {
+		if (freeCount > 0) {
+			return freeSlots[--freeCount];
+		}
+		if (usedSlots == (long) segments.length * segmentRecords) {
+			addSegment();
+		}
+		return usedSlots++;
+	}
+
+	private void free(int slot) {
+		if (freeCount == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+		}
+		freeSlots[freeCount++] = slot;
+	}
+
+	private ByteBuffer segment(int slot) {
+		return segments[slot / segmentRecords];
+	}
+
+	private int offset(int slot) {
+		return slot % segmentRecords * RECORD_SIZE;
+	}
+
+	private int idOf(int slot) {
+		return segment(slot).getInt(offset(slot));
+	}
+
+	private byte typeOf(int slot) {
+		return segment(slot).get(offset(slot) + TYPE_OFFSET);
+	}
+
+	private Accounts read(int slot) {
+		ByteBuffer segment = segment(slot);
+		segment.position(offset(slot));
+		return BankSnapshot.decode(segment);
+	}
+
+	private void write(int slot, Accounts account) {
+		ByteBuffer segment = segment(slot);
+		segment.position(offset(slot));
+		BankSnapshot.encode(segment, account);
+	}
+}
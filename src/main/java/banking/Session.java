@@ -0,0 +1,44 @@
+package banking;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// One command stream opened through SessionManager. Batches passed to run() are
+// executed in the order they were submitted, each on the session executor.
+public class Session {
+	private final String name;
+	private final MasterControl masterControl;
+	private final Executor executor;
+	private final CommandHistory commandHistory = new CommandHistory();
+	private CompletableFuture<List<String>> tail = CompletableFuture.completedFuture(List.of());
+
+	Session(String name, MasterControl masterControl, Executor executor) {
+		this.name = name;
+		this.masterControl = masterControl;
+		this.executor = executor;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public CommandHistory getCommandHistory() {
+		return commandHistory;
+	}
+
+	// Completes with this session's invalid commands so far once the batch has run
+	public synchronized CompletableFuture<List<String>> run(Iterator<String> commands) {
+		// A failed batch does not stop the ones queued behind it
+		tail = tail.handle((previous, failure) -> previous).thenApplyAsync(previous -> {
+			masterControl.start(commands, commandHistory::addInvalidCommand);
+			return commandHistory.getInvalidCommands();
+		}, executor);
+		return tail;
+	}
+
+	public CompletableFuture<List<String>> run(List<String> commands) {
+		return run(commands.iterator());
+	}
+}
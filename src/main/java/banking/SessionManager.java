@@ -0,0 +1,51 @@
+package banking;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Runs many teller/ATM sessions against one shared MasterControl. Each session gets its
+// own CommandHistory and runs its commands one after another on the executor, so order
+// holds within a session while sessions interleave freely. The MasterControl should sit
+// on a ConcurrentBank; its stripes are ReentrantLocks, which a virtual thread can wait on
+// without pinning its carrier.
+public class SessionManager implements AutoCloseable {
+	private final MasterControl masterControl;
+	private final ExecutorService executor;
+
+	// One virtual thread per session on Java 21+, otherwise a cached platform thread pool
+	public SessionManager(MasterControl masterControl) {
+		this(masterControl, newSessionExecutor());
+	}
+
+	public SessionManager(MasterControl masterControl, ExecutorService executor) {
+		this.masterControl = masterControl;
+		this.executor = executor;
+	}
+
+	public Session openSession(String name) {
+		return new Session(name, masterControl, executor);
+	}
+
+	// Waits for submitted work to finish. Interrupted while waiting, it cancels what is
+	// left and returns with the thread's interrupt status set.
+	@Override
+	public void close() {
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	static ExecutorService newSessionExecutor() {
+		try {
+			// Looked up reflectively so the code still builds and runs on Java 11
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+}
@@ -0,0 +1,318 @@
+package banking;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Runs commands on N single-writer shards. Accounts are hash-partitioned by id; each
+// shard owns its own Bank, CommandValidator and CommandProcessor and is driven by one
+// thread from its own queue, so no command needs a lock. Commands for one account are
+// applied in input order. Passtime goes to every shard.
+//
+// A transfer between accounts on different shards is a rendezvous over both queues: the
+// destination shard parks when it reaches the transfer, and once the source shard reaches
+// it too it runs the usual validator and processor over a view holding the two accounts,
+// then releases the destination. Debit and credit happen on one thread while both owners
+// are stopped, so no money is ever in flight. Cross-shard transfers are queued in input
+// order on every shard, so two rendezvous can never wait on each other.
+public class ShardedMasterControl implements AutoCloseable {
+	private static final int QUEUE_CAPACITY = 1024;
+
+	private final Shard[] shards;
+	private final CommandHistory commandHistory;
+	private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+	public ShardedMasterControl(int shardCount, CommandHistory commandHistory) {
+		if (shardCount < 1) {
+			throw new IllegalArgumentException("shardCount must be positive");
+		}
+		this.commandHistory = commandHistory;
+		shards = new Shard[shardCount];
+		for (int i = 0; i < shardCount; i++) {
+			shards[i] = new Shard(i);
+			shards[i].thread.start();
+		}
+	}
+
+	// Returns the invalid commands in input order, like MasterControl.start(List).
+	public List<String> start(List<String> input) {
+		List<Rejected> rejected = new ArrayList<>();
+		start(input.iterator(), (sequence, command) -> {
+			synchronized (rejected) {
+				rejected.add(new Rejected(sequence, command));
+			}
+		});
+		rejected.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+		for (Rejected command : rejected) {
+			commandHistory.addInvalidCommand(command.command);
+		}
+		return commandHistory.getInvalidCommands();
+	}
+
+	// Blocks until every command has been applied. invalidCommands is called from the
+	// shard threads, so it has to be thread-safe, and sees commands out of input order.
+	public void start(Iterator<String> input, Consumer<String> invalidCommands) {
+		start(input, (sequence, command) -> invalidCommands.accept(command));
+	}
+
+	private void start(Iterator<String> input, InvalidCommandSink invalidCommands) {
+		long sequence = 0;
+		while (input.hasNext()) {
+			String text = input.next();
+			route(new Task(sequence++, text, ParsedCommand.parse(text), invalidCommands));
+		}
+		await();
+	}
+
+	public int getShardCount() {
+		return shards.length;
+	}
+
+	public Bank getBank(int shard) {
+		return shards[shard].bank;
+	}
+
+	// Only safe between start() calls, when every shard is idle
+	public Accounts getAccount(String id) {
+		return shards[shardOf(id)].bank.getAccount(id);
+	}
+
+	public int getNumberOfAccounts() {
+		int total = 0;
+		for (Shard shard : shards) {
+			total += shard.bank.getNumberOfAccounts();
+		}
+		return total;
+	}
+
+	int shardOf(String id) {
+		int h = id.hashCode();
+		h ^= h >>> 16;
+		return (h & Integer.MAX_VALUE) % shards.length;
+	}
+
+	@Override
+	public void close() {
+		for (Shard shard : shards) {
+			shard.thread.interrupt();
+		}
+		for (Shard shard : shards) {
+			try {
+				shard.thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private void route(Task task) {
+		ParsedCommand command = task.command;
+		String verb = command == null ? "" : command.getVerb();
+		switch (verb) {
+		case "deposit":
+		case "withdraw":
+			if (command.size() > 1) {
+				enqueue(shardOf(command.getToken(1)), task);
+				return;
+			}
+			break;
+		case "create":
+			if (command.size() > 2) {
+				enqueue(shardOf(command.getToken(2)), task);
+				return;
+			}
+			break;
+		case "transfer":
+			if (command.size() > 2) {
+				int from = shardOf(command.getToken(1));
+				int to = shardOf(command.getToken(2));
+				if (from != to) {
+					Rendezvous rendezvous = new Rendezvous(shards[to]);
+					enqueue(to, new Task(rendezvous));
+					enqueue(from, new Task(task, rendezvous));
+					return;
+				}
+				enqueue(from, task);
+				return;
+			}
+			break;
+		case "passtime":
+			// Every shard applies it; only shard 0 reports whether it was valid
+			for (int i = 1; i < shards.length; i++) {
+				enqueue(i, new Task(task.sequence, task.text, command, null));
+			}
+			break;
+		default:
+			break;
+		}
+		// Malformed and unknown commands are rejected by shard 0's validator
+		enqueue(0, task);
+	}
+
+	private void enqueue(int shard, Task task) {
+		try {
+			shards[shard].queue.put(task);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while routing commands", e);
+		}
+	}
+
+	private void await() {
+		CountDownLatch idle = new CountDownLatch(shards.length);
+		for (int i = 0; i < shards.length; i++) {
+			enqueue(i, new Task(idle));
+		}
+		try {
+			idle.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for shards", e);
+		}
+		RuntimeException error = failure.getAndSet(null);
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	private interface InvalidCommandSink {
+		void accept(long sequence, String command);
+	}
+
+	private static final class Task {
+		final long sequence;
+		final String text;
+		final ParsedCommand command;
+		final InvalidCommandSink invalidCommands; // null when the result is not reported
+		final CountDownLatch idle; // set only on the marker that ends a start() call
+		final Rendezvous rendezvous; // set on both halves of a cross-shard transfer
+
+		Task(long sequence, String text, ParsedCommand command, InvalidCommandSink invalidCommands) {
+			this(sequence, text, command, invalidCommands, null, null);
+		}
+
+		Task(CountDownLatch idle) {
+			this(-1, null, null, null, idle, null);
+		}
+
+		// The destination shard's half, which only parks until the transfer is done
+		Task(Rendezvous rendezvous) {
+			this(-1, null, null, null, null, rendezvous);
+		}
+
+		// The source shard's half, which runs the transfer
+		Task(Task transfer, Rendezvous rendezvous) {
+			this(transfer.sequence, transfer.text, transfer.command, transfer.invalidCommands, null, rendezvous);
+		}
+
+		private Task(long sequence, String text, ParsedCommand command, InvalidCommandSink invalidCommands,
+				CountDownLatch idle, Rendezvous rendezvous) {
+			this.sequence = sequence;
+			this.text = text;
+			this.command = command;
+			this.invalidCommands = invalidCommands;
+			this.idle = idle;
+			this.rendezvous = rendezvous;
+		}
+	}
+
+	private static final class Rendezvous {
+		final Shard destination;
+		final CountDownLatch arrived = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+
+		Rendezvous(Shard destination) {
+			this.destination = destination;
+		}
+	}
+
+	private static final class Rejected {
+		final long sequence;
+		final String command;
+
+		Rejected(long sequence, String command) {
+			this.sequence = sequence;
+			this.command = command;
+		}
+	}
+
+	private final class Shard implements Runnable {
+		final Bank bank = new Bank();
+		final CommandValidator validator = new CommandValidator(bank);
+		final CommandProcessor processor = new CommandProcessor(bank);
+		final BlockingQueue<Task> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		final Thread thread;
+		// Holds the two accounts of a cross-shard transfer this shard is the source of
+		private final Bank transferView = new Bank();
+		private final CommandValidator transferValidator = new CommandValidator(transferView);
+		private final CommandProcessor transferProcessor = new CommandProcessor(transferView);
+
+		Shard(int index) {
+			thread = new Thread(this, "bank-shard-" + index);
+			thread.setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					Task task = queue.take();
+					if (task.idle != null) {
+						task.idle.countDown();
+					} else if (task.rendezvous == null) {
+						execute(task, validator, processor);
+					} else if (task.command == null) {
+						task.rendezvous.arrived.countDown();
+						task.rendezvous.done.await();
+					} else {
+						transfer(task);
+					}
+				}
+			} catch (InterruptedException e) {
+				// close() stops the shard
+			}
+		}
+
+		private void transfer(Task task) throws InterruptedException {
+			Rendezvous rendezvous = task.rendezvous;
+			rendezvous.arrived.await();
+			try {
+				// The destination shard is parked, so its accounts can be touched from here
+				copyInto(transferView, bank, task.command.getToken(1));
+				copyInto(transferView, rendezvous.destination.bank, task.command.getToken(2));
+				execute(task, transferValidator, transferProcessor);
+			} finally {
+				transferView.removeAccount(task.command.getToken(1));
+				transferView.removeAccount(task.command.getToken(2));
+				rendezvous.done.countDown();
+			}
+		}
+
+		private void copyInto(Bank view, Bank owner, String id) {
+			Accounts account = owner.getAccount(id);
+			if (account != null) {
+				view.getStore().put(id, account);
+			}
+		}
+
+		private void execute(Task task, CommandValidator validator, CommandProcessor processor) {
+			try {
+				boolean valid = validator.validateCommand(task.command);
+				if (valid) {
+					processor.process(task.command);
+				}
+				if (!valid && task.invalidCommands != null) {
+					task.invalidCommands.accept(task.sequence, task.text);
+				}
+			} catch (RuntimeException e) {
+				failure.compareAndSet(null, e);
+			}
+		}
+	}
+}
@@ -1,6 +1,6 @@
 package banking;
 
-public class TransferCommandValidator {
+public class TransferCommandValidator implements Validator {
 	private final Bank bank;
 
 	public TransferCommandValidator(Bank bank) {
@@ -8,26 +8,23 @@ public class TransferCommandValidator {
 	}
 
 	public boolean validate(String command) {
-		// Trim any leading or trailing spaces before processing
-		command = command.trim();
-
-		String[] parts = command.split("\\s+");
+		return validate(ParsedCommand.parse(command));
+	}
 
+	@Override
+	public boolean validate(ParsedCommand command) {
 		// Ensure that the command has the correct number of arguments (4)
-		if (parts.length != 4) {
+		if (command.size() != 4) {
 			System.out.println("Invalid transfer command. Usage: transfer <fromId> <toId> <amount>");
 			return false;
 		}
 
-		String fromId = parts[1];
-		String toId = parts[2];
-		double amount;
-
+		String fromId = command.getToken(1);
+		String toId = command.getToken(2);
 		// Parse the amount
-		try {
-			amount = Double.parseDouble(parts[3]);
-		} catch (NumberFormatException e) {
-			System.out.println("Invalid transfer amount: " + parts[3]);
+		long amount = Money.parseCents(command.getToken(3));
+		if (amount == Money.INVALID) {
+			System.out.println("Invalid transfer amount: " + command.getToken(3));
 			return false;
 		}
 
@@ -48,26 +45,28 @@ public class TransferCommandValidator {
 			return false;
 		}
 
-		Accounts fromAccount = bank.getAccount().get(fromId);
-		Accounts toAccount = bank.getAccount().get(toId);
+		Accounts fromAccount = bank.getAccount(fromId);
+		// One instance for a transfer to itself, also on stores that hand out copies
+		Accounts toAccount = toId.equals(fromId) ? fromAccount : bank.getAccount(toId);
 
 		if (fromAccount instanceof CertificateOfDeposit || toAccount instanceof CertificateOfDeposit) {
 			System.out.println("Error: CD accounts cannot be part of a transfer.");
 			return false;
 		}
 
-		double availableBalance = fromAccount.getBalance();
-		if (availableBalance < amount) {
+		// Transfer the available balance instead of the requested amount if it is short
+		long taken = fromAccount.debitUpToCents(amount);
+		if (taken < amount) {
 			System.out.println("Insufficient balance in account " + fromId + " for the transfer. Only "
-					+ availableBalance + " will be transferred.");
-			amount = availableBalance; // Transfer the available balance instead of the requested amount
+					+ Money.toDollars(taken) + " will be transferred.");
+			amount = taken;
 		}
-
-		fromAccount.withdraw(amount);
-		toAccount.addDeposit(amount);
+		toAccount.addDepositCents(amount);
+		bank.updateAccount(fromAccount);
+		bank.updateAccount(toAccount);
 
 		// Inform the user of the successful transfer
-		System.out.println("Transferred " + amount + " from account " + fromId + " to account " + toId);
+		System.out.println("Transferred " + Money.toDollars(amount) + " from account " + fromId + " to account " + toId);
 		return true;
 	}
 }
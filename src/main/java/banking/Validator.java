@@ -0,0 +1,5 @@
+package banking;
+
+public interface Validator {
+	boolean validate(ParsedCommand command);
+}
@@ -6,7 +6,7 @@ import java.util.Date;
 import java.time.temporal.ChronoUnit;
 
 
-public class WithdrawCommandValidator {
+public class WithdrawCommandValidator implements Validator {
     private final Bank bank;
 
     public WithdrawCommandValidator(Bank bank) {
@@ -14,21 +14,23 @@ public class WithdrawCommandValidator {
     }
 
     public boolean validate(String command) {
+        return validate(ParsedCommand.parse(command));
+    }
+
+    @Override
+    public boolean validate(ParsedCommand command) {
         if (command == null) {
             return false; // Null commands are invalid
         }
-        String[] parts = command.trim().split("\\s+");
 
-        if (parts.length != 3) {
+        if (command.size() != 3) {
             return false; // Invalid command format
         }
 
-        String accountId = parts[1];
-        double amount;
-
-        try {
-            amount = Double.parseDouble(parts[2]);
-        } catch (NumberFormatException e) {
+        String accountId = command.getToken(1);
+        // Rejects non-numbers and amounts with more than two decimal places
+        long amount = Money.parseCents(command.getToken(2));
+        if (amount == Money.INVALID) {
             return false; // Invalid amount (not a valid number)
         }
 
@@ -36,13 +38,8 @@ public class WithdrawCommandValidator {
             return false; // Invalid withdrawal amount (should be positive)
         }
 
-        // Check for precision limit (two decimal places)
-        if (amount * 100 != Math.floor(amount * 100)) {
-            return false; // Reject if the amount has more than two decimal places
-        }
-
         // Retrieve account by ID from the bank
-        Accounts account = bank.getAccount().get(accountId);
+        Accounts account = bank.getAccount(accountId);
         if (account == null) {
             return false; // Account does not exist
         }
@@ -60,44 +57,48 @@ public class WithdrawCommandValidator {
     }
 
 
-    private boolean validateCheckingAccount(Checking account, double amount) {
-        if (amount > 400) {
+    private boolean validateCheckingAccount(Checking account, long amount) {
+        if (amount > 400 * Money.ONE_DOLLAR) {
             return false;  // Checking account withdrawal limit
         }
-        if (account.getBalance() < amount) {
+        if (!account.tryDebitCents(amount)) {
             return false;  // Insufficient funds
         }
-        account.setBalance(account.getBalance() - amount);  // Deduct the amount
+        bank.updateAccount(account);
         return true;
     }
 
-    private boolean validateSavingsAccount(Savings account, double amount) {
-        if (amount > 1000) {
+    private boolean validateSavingsAccount(Savings account, long amount) {
+        if (amount > 1000 * Money.ONE_DOLLAR) {
             return false;  // Savings account withdrawal limit
         }
-        if (account.getBalance() < amount) {
+        if (account.getBalanceCents() < amount) {
             return false;  // Insufficient funds
         }
         if (account.getLastWithdrawalDate() != null
                 && isWithinSameMonth(account.getLastWithdrawalDate())) {
             return false;  // Savings account can only have one withdrawal per month
         }
-        account.setBalance(account.getBalance() - amount);  // Deduct the amount
+        if (!account.tryDebitCents(amount)) {
+            return false;  // Insufficient funds
+        }
         account.setLastWithdrawalDate(LocalDate.now());  // Update the withdrawal date
+        bank.updateAccount(account);
         return true;
     }
 
-    private boolean validateCDAccount(CertificateOfDeposit account, double amount) {
+    private boolean validateCDAccount(CertificateOfDeposit account, long amount) {
         Date currentDate = new Date();
         long monthsSinceCreation = monthsBetween(account.getCreationDate(), currentDate);
         if (monthsSinceCreation < 12) {
             return false;  // Cannot withdraw before 12 months
         }
-        if (amount > account.getBalance()) {
-            amount = account.getBalance();  // Withdraw the full balance if amount exceeds balance
+        if (amount > account.getBalanceCents()) {
+            amount = account.getBalanceCents();  // Withdraw the full balance if amount exceeds balance
         }
-        if (amount == account.getBalance()) {
-            account.setBalance(0);  // Deduct full balance for CD withdrawal
+        if (amount == account.getBalanceCents()) {
+            account.setBalanceCents(0);  // Deduct full balance for CD withdrawal
+            bank.updateAccount(account);
             return true;
         }
         return false;  // CD account only allows full withdrawal
@@ -2,6 +2,7 @@ package banking;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -237,4 +238,26 @@ public class AccountTest {
 		double actual = certificateOfDeposit.getBalance();
 		assertEquals(1975.54, actual);
 	}
+
+	@Test
+	void try_debit_rejects_amount_above_balance() {
+		checking.addDepositCents(5000);
+		assertFalse(checking.tryDebitCents(5001));
+		assertTrue(checking.tryDebitCents(5000));
+		assertEquals(0, checking.getBalanceCents());
+	}
+
+	@Test
+	void try_withdraw_stops_at_zero() {
+		checking.addDepositCents(5000);
+		assertTrue(checking.tryWithdrawCents(9000));
+		assertEquals(0, checking.getBalanceCents());
+	}
+
+	@Test
+	void try_deposit_fails_once_passtime_closed_the_account() {
+		assertFalse(checking.accrue(1, new InterestEngine()));
+		assertFalse(checking.tryDepositCents(100));
+		assertEquals(0, checking.getBalanceCents());
+	}
 }
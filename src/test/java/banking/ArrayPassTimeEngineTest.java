@@ -0,0 +1,74 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Iterator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ArrayPassTimeEngineTest {
+
+	Bank bank;
+	CommandProcessor commandProcessor;
+
+	@BeforeEach
+	void setUp() {
+		bank = new Bank();
+		commandProcessor = new CommandProcessor(bank);
+		commandProcessor.setPassTimeEngine(new ArrayPassTimeEngine());
+	}
+
+	@Test
+	void kernel_charges_fee_then_applies_factor() {
+		long[] balances = { 0, 5000, 5000, 100000 };
+		double[] factors = { 1.5, 1.0025, 1.0025, 1.0025 };
+		long[] fees = { 2500, 2500, 0, 2500 };
+
+		ArrayPassTimeEngine.applyKernel(balances, factors, fees, balances.length);
+
+		assertArrayEquals(new long[] { 0, 2506, 5013, 100250 }, balances);
+	}
+
+	@Test
+	void cd_accounts_advance_their_dates() {
+		commandProcessor.process("create cd 12345678 2.1 2000");
+		CertificateOfDeposit cd = (CertificateOfDeposit) bank.getAccount().get("12345678");
+
+		commandProcessor.process("passtime 12");
+
+		assertEquals(cd.getStartDate().plusMonths(12), cd.getCurrentDate());
+	}
+
+	@Test
+	void emptied_accounts_are_closed() {
+		commandProcessor.process("create checking 12345678 3");
+
+		commandProcessor.process("passtime 1");
+
+		assertNull(bank.getAccount().get("12345678"));
+	}
+
+	@Test
+	void array_results_match_eager_results() {
+		Bank eagerBank = new Bank();
+		CommandProcessor eagerProcessor = new CommandProcessor(eagerBank);
+		WorkloadGenerator generator = new WorkloadGenerator(9);
+		generator.setAccounts(300);
+		generator.setPassTimeEvery(200);
+
+		Iterator<String> commands = generator.iterator(5000);
+		while (commands.hasNext()) {
+			String command = commands.next();
+			eagerProcessor.process(command);
+			commandProcessor.process(command);
+		}
+
+		assertEquals(eagerBank.getNumberOfAccounts(), bank.getNumberOfAccounts());
+		for (Accounts expected : eagerBank.getAccount().values()) {
+			assertEquals(expected.getBalanceCents(), bank.getAccount().get(expected.getId()).getBalanceCents());
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AsyncMasterControlTest {
+
+	Bank bank;
+	AsyncMasterControl asyncMasterControl;
+
+	@BeforeEach
+	void setUp() {
+		bank = new Bank();
+		asyncMasterControl = new AsyncMasterControl(new CommandValidator(bank), new CommandProcessor(bank), 100);
+	}
+
+	@AfterEach
+	void tearDown() {
+		asyncMasterControl.close();
+	}
+
+	@Test
+	void accepted_command_reports_resulting_balance() throws Exception {
+		asyncMasterControl.submit("create checking 12345678 1.0");
+		CommandResult result = asyncMasterControl.submit("deposit 12345678 250.50").get();
+
+		assertTrue(result.isAccepted());
+		assertNull(result.getReason());
+		assertEquals(25050, result.getBalanceCents());
+	}
+
+	@Test
+	void rejected_command_reports_reason() throws Exception {
+		asyncMasterControl.submit("create checking 12345678 1.0");
+		CommandResult overLimit = asyncMasterControl.submit("deposit 12345678 5000").get();
+		CommandResult unknown = asyncMasterControl.submit("depositt 12345678 5").get();
+
+		assertFalse(overLimit.isAccepted());
+		assertEquals("invalid deposit command", overLimit.getReason());
+		assertEquals(0, overLimit.getBalanceCents());
+		assertEquals("unknown command", unknown.getReason());
+		assertEquals(Money.INVALID, unknown.getBalanceCents());
+	}
+
+	@Test
+	void submissions_are_applied_in_order() throws Exception {
+		asyncMasterControl.submit("create checking 12345678 1.0");
+		List<CompletableFuture<CommandResult>> results = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			results.add(asyncMasterControl.submit("deposit 12345678 1"));
+		}
+
+		for (int i = 0; i < 50; i++) {
+			assertEquals((i + 1) * Money.ONE_DOLLAR, results.get(i).get().getBalanceCents());
+		}
+	}
+
+	@Test
+	void rejects_when_executor_falls_behind() throws Exception {
+		asyncMasterControl.close();
+		CountDownLatch release = new CountDownLatch(1);
+		bank = new Bank();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.execute(() -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		asyncMasterControl = new AsyncMasterControl(new CommandValidator(bank), new CommandProcessor(bank), executor,
+				2);
+
+		CompletableFuture<CommandResult> first = asyncMasterControl.submit("create checking 12345678 1.0");
+		CompletableFuture<CommandResult> second = asyncMasterControl.submit("deposit 12345678 10");
+		CompletableFuture<CommandResult> third = asyncMasterControl.submit("deposit 12345678 10");
+
+		ExecutionException rejected = assertThrows(ExecutionException.class, third::get);
+		assertTrue(rejected.getCause() instanceof RejectedExecutionException);
+		assertEquals(0, asyncMasterControl.getAvailableCapacity());
+
+		release.countDown();
+		assertTrue(first.get().isAccepted());
+		assertEquals(1000, second.get().getBalanceCents());
+	}
+}
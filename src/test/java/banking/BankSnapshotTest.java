@@ -0,0 +1,165 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BankSnapshotTest {
+
+	private Path file;
+	Bank bank;
+	CommandProcessor processor;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.createTempFile("bank", ".snapshot");
+		bank = new Bank();
+		processor = new CommandProcessor(bank);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	void round_trip_keeps_every_account_field_and_the_date() throws IOException {
+		Checking checking = new Checking(1.5, "00000001");
+		checking.setBalanceCents(12345);
+		Savings savings = new Savings(2.5, "00000002");
+		savings.setBalanceCents(50000);
+		savings.setMonthlyWithdrawals(2);
+		savings.setLastWithdrawalDate(LocalDate.of(2024, 3, 9));
+		CertificateOfDeposit cd = new CertificateOfDeposit(2000, 3.0, "00000003");
+		cd.restoreDates(LocalDate.of(2023, 1, 1), LocalDate.of(2024, 2, 1));
+		bank.addAccount(checking.getId(), checking);
+		bank.addAccount(savings.getId(), savings);
+		bank.addAccount(cd.getId(), cd);
+		processor.setCurrentDate(LocalDate.of(2030, 6, 1));
+
+		BankSnapshot.write(file, processor, 42);
+		CommandProcessor loaded = new CommandProcessor(new Bank());
+
+		assertEquals(42, BankSnapshot.load(file, loaded));
+		Bank restored = loaded.getBank();
+		assertEquals(3, restored.getNumberOfAccounts());
+		assertEquals(LocalDate.of(2030, 6, 1), loaded.getCurrentDate());
+		assertEquals(12345, restored.getAccount("00000001").getBalanceCents());
+		assertEquals(1.5, restored.getAccount("00000001").getApr());
+		Savings restoredSavings = (Savings) restored.getAccount("00000002");
+		assertEquals(2, restoredSavings.getMonthlyWithdrawals());
+		assertEquals(LocalDate.of(2024, 3, 9), restoredSavings.getLastWithdrawalDate());
+		CertificateOfDeposit restoredCd = (CertificateOfDeposit) restored.getAccount("00000003");
+		assertEquals(200000, restoredCd.getBalanceCents());
+		assertEquals(LocalDate.of(2023, 1, 1), restoredCd.getStartDate());
+		assertEquals(LocalDate.of(2024, 2, 1), restoredCd.getCurrentDate());
+	}
+
+	@Test
+	void workload_state_survives_small_mapping_windows() throws IOException {
+		WorkloadGenerator generator = new WorkloadGenerator(9);
+		generator.setAccounts(500);
+		generator.setPassTimeEvery(400);
+		new MasterControl(new CommandValidator(bank), processor, new CommandHistory())
+				.start(generator.stream(5000).collect(Collectors.toList()));
+
+		BankSnapshot.write(file, processor, 0);
+		CommandProcessor loaded = new CommandProcessor(new Bank());
+		BankSnapshot.load(file, loaded, 7);
+
+		assertEquals(bank.getNumberOfAccounts(), loaded.getBank().getNumberOfAccounts());
+		for (Accounts account : bank.getAccount().values()) {
+			Accounts restored = loaded.getBank().getAccount(account.getId());
+			assertEquals(account.getClass(), restored.getClass());
+			assertEquals(account.getBalanceCents(), restored.getBalanceCents());
+		}
+	}
+
+	@Test
+	void corrupted_snapshot_is_rejected() throws IOException {
+		Checking checking = new Checking(1.5, "00000001");
+		bank.addAccount(checking.getId(), checking);
+		BankSnapshot.write(file, processor, 0);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 7 }), BankSnapshot.HEADER_SIZE + 6);
+		}
+		CommandProcessor loaded = new CommandProcessor(new Bank());
+
+		IOException error = assertThrows(IOException.class, () -> BankSnapshot.load(file, loaded));
+		assertTrue(error.getMessage().contains("checksum"));
+		assertEquals(0, loaded.getBank().getNumberOfAccounts());
+	}
+
+	@Test
+	void loading_into_a_non_empty_bank_is_refused() throws IOException {
+		BankSnapshot.write(file, processor, 0);
+		bank.addAccount("00000001", new Checking(1.0, "00000001"));
+
+		assertThrows(IllegalStateException.class, () -> BankSnapshot.load(file, processor));
+	}
+
+	@Test
+	void snapshot_of_a_busy_concurrent_bank_recovers_to_the_same_state() throws Exception {
+		Path journalFile = Files.createTempFile("bank", ".journal");
+		try {
+			ConcurrentBank busy = new ConcurrentBank(16);
+			CommandProcessor busyProcessor = new CommandProcessor(busy);
+			MasterControl masterControl = new MasterControl(new CommandValidator(busy), busyProcessor,
+					new CommandHistory());
+			long snapshotLsn;
+			try (CommandJournal journal = new CommandJournal(journalFile, CommandJournal.Durability.OS_BUFFERED)) {
+				masterControl.setJournal(journal);
+				List<String> setup = new ArrayList<>();
+				for (int i = 0; i < 16; i++) {
+					setup.add("create checking " + PrimitiveAccountStore.formatId(i) + " 0.0");
+				}
+				masterControl.start(setup);
+
+				ExecutorService executor = Executors.newFixedThreadPool(4);
+				for (int t = 0; t < 4; t++) {
+					List<String> commands = new ArrayList<>();
+					for (int n = 0; n < 5000; n++) {
+						commands.add("deposit " + PrimitiveAccountStore.formatId(n % 16) + " 0.01");
+					}
+					executor.execute(() -> masterControl.start(commands.iterator(), command -> {
+					}));
+				}
+				// Taken while the deposits are still running
+				snapshotLsn = BankSnapshot.write(file, busyProcessor, journal);
+				executor.shutdown();
+				assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+			}
+
+			CommandProcessor recovered = new CommandProcessor(new Bank());
+			try (RecoveryManager recovery = new RecoveryManager(1)) {
+				assertEquals(16 + 4 * 5000, recovery.recover(file, journalFile, recovered));
+			}
+			assertTrue(snapshotLsn >= 16);
+			for (int i = 0; i < 16; i++) {
+				String id = PrimitiveAccountStore.formatId(i);
+				assertEquals(busy.getAccount(id).getBalanceCents(),
+						recovered.getBank().getAccount(id).getBalanceCents());
+			}
+		} finally {
+			Files.deleteIfExists(journalFile);
+		}
+	}
+}
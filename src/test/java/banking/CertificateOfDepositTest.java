@@ -21,4 +21,10 @@ public class CertificateOfDepositTest {
         assertEquals(2000.54, actual);
     }
 
+    @Test
+    void integer_balance_is_read_as_dollars() {
+        Accounts cd = new CertificateOfDeposit(2000, 5.5, ACCOUNT_ID_1);
+        assertEquals(2000 * Money.ONE_DOLLAR, cd.getBalanceCents());
+    }
+
 }
\ No newline at end of file
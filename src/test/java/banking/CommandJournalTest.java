@@ -0,0 +1,125 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CommandJournalTest {
+
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.createTempFile("journal", ".log");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	private List<String> replay(long afterLsn) throws IOException {
+		List<String> commands = new ArrayList<>();
+		CommandJournal.replay(file, afterLsn, (command, lsn) -> commands.add(lsn + " " + command));
+		return commands;
+	}
+
+	@Test
+	void every_command_mode_is_durable_on_return() throws IOException {
+		try (CommandJournal journal = new CommandJournal(file, CommandJournal.Durability.EVERY_COMMAND)) {
+			assertEquals(1, journal.append("create checking 12345678 1.0"));
+			assertEquals(2, journal.append("deposit 12345678 100"));
+			assertEquals(2, journal.getDurableLsn());
+			assertEquals(List.of("1 create checking 12345678 1.0", "2 deposit 12345678 100"), replay(0));
+		}
+	}
+
+	@Test
+	void group_commit_batches_and_completes_waiters() throws Exception {
+		try (CommandJournal journal = new CommandJournal(file, CommandJournal.Durability.GROUP_COMMIT, 1)) {
+			long last = 0;
+			for (int i = 0; i < 1000; i++) {
+				last = journal.append("deposit 12345678 " + i);
+			}
+			CompletableFuture<Void> durable = journal.whenDurable(last);
+			journal.awaitDurable(last);
+			durable.get();
+			assertTrue(journal.getDurableLsn() >= last);
+		}
+		assertEquals(1000, replay(0).size());
+		assertEquals(List.of("1000 deposit 12345678 999"), replay(999));
+	}
+
+	@Test
+	void reopening_continues_numbering_and_drops_torn_record() throws IOException {
+		try (CommandJournal journal = new CommandJournal(file, CommandJournal.Durability.OS_BUFFERED)) {
+			journal.append("create checking 12345678 1.0");
+			journal.append("deposit 12345678 100");
+		}
+		// Simulate a crash in the middle of writing the second record
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3);
+		}
+
+		try (CommandJournal journal = new CommandJournal(file, CommandJournal.Durability.EVERY_COMMAND)) {
+			assertEquals(1, journal.getLastLsn());
+			assertEquals(2, journal.append("deposit 12345678 50"));
+		}
+		assertEquals(List.of("1 create checking 12345678 1.0", "2 deposit 12345678 50"), replay(0));
+	}
+
+	@Test
+	void master_control_journals_only_accepted_commands() throws IOException {
+		Bank bank = new Bank();
+		MasterControl masterControl = new MasterControl(new CommandValidator(bank), new CommandProcessor(bank),
+				new CommandHistory());
+		try (CommandJournal journal = new CommandJournal(file, CommandJournal.Durability.GROUP_COMMIT)) {
+			masterControl.setJournal(journal);
+			masterControl.start(List.of("create checking 12345678 1.0", "deposit 12345678 5000",
+					"deposit 12345678 100"));
+			assertEquals(2, journal.getDurableLsn());
+		}
+		assertEquals(List.of("1 create checking 12345678 1.0", "2 deposit 12345678 100"), replay(0));
+	}
+
+	@Test
+	void async_result_completes_after_group_commit() throws Exception {
+		Bank bank = new Bank();
+		try (CommandJournal journal = new CommandJournal(file, CommandJournal.Durability.GROUP_COMMIT);
+				AsyncMasterControl async = new AsyncMasterControl(new CommandValidator(bank),
+						new CommandProcessor(bank), 10)) {
+			async.setJournal(journal);
+			async.submit("create checking 12345678 1.0");
+			CommandResult result = async.submit("deposit 12345678 100").get();
+
+			assertTrue(result.isAccepted());
+			assertTrue(journal.getDurableLsn() >= 2);
+		}
+	}
+
+	@Test
+	void lock_free_bank_cannot_be_journaled() throws Exception {
+		ConcurrentBank bank = new ConcurrentBank(16, true);
+		MasterControl masterControl = new MasterControl(new CommandValidator(bank), new CommandProcessor(bank),
+				new CommandHistory());
+		try (CommandJournal journal = new CommandJournal(file, CommandJournal.Durability.OS_BUFFERED);
+				AsyncMasterControl async = new AsyncMasterControl(new CommandValidator(bank),
+						new CommandProcessor(bank), 10)) {
+			assertThrows(IllegalStateException.class, () -> masterControl.setJournal(journal));
+			assertThrows(IllegalStateException.class, () -> async.setJournal(journal));
+		}
+	}
+}
@@ -166,4 +166,17 @@ public class CommandValidatorTest {
 		assertTrue(actual, "Account ID with leading zeros should be valid");
 	}
 
-}
\ No newline at end of file
+	@Test
+	void registered_validator_handles_new_verb() {
+		commandValidator.register("close", command -> command.size() == 2);
+		assertTrue(commandValidator.validate("close 12345678"));
+		assertFalse(commandValidator.validate("close"));
+	}
+
+	@Test
+	void verb_must_match_exactly() {
+		boolean actual = commandValidator.validate("createx Checking 89456185 5.0");
+		assertFalse(actual, "Only the exact verb should be dispatched");
+	}
+
+}
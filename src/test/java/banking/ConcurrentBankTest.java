@@ -0,0 +1,163 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentBankTest {
+	private static final int THREADS = 8;
+
+	ConcurrentBank bank;
+	MasterControl masterControl;
+	CommandHistory commandHistory;
+
+	@BeforeEach
+	void setUp() {
+		bank = new ConcurrentBank(16);
+		commandHistory = new CommandHistory();
+		masterControl = new MasterControl(new CommandValidator(bank), new CommandProcessor(bank), commandHistory);
+	}
+
+	private void runOnThreads(List<List<String>> perThread) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		for (List<String> commands : perThread) {
+			executor.execute(() -> masterControl.start(commands.iterator(), commandHistory::addInvalidCommand));
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void same_stripe_is_used_for_the_same_account() {
+		assertEquals(bank.stripeOf("12345678"), bank.stripeOf(new String("12345678")));
+	}
+
+	@Test
+	void concurrent_deposits_are_not_lost() throws InterruptedException {
+		List<String> setup = new ArrayList<>();
+		for (int i = 0; i < 32; i++) {
+			setup.add("create checking " + PrimitiveAccountStore.formatId(i) + " 1.0");
+		}
+		masterControl.start(setup);
+
+		List<List<String>> perThread = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			List<String> commands = new ArrayList<>();
+			for (int n = 0; n < 500; n++) {
+				commands.add("deposit " + PrimitiveAccountStore.formatId(n % 32) + " 1");
+			}
+			perThread.add(commands);
+		}
+		runOnThreads(perThread);
+
+		long total = 0;
+		for (Accounts account : bank.getAccount().values()) {
+			total += account.getBalanceCents();
+		}
+		assertEquals(THREADS * 500 * Money.ONE_DOLLAR, total);
+		assertEquals(0, commandHistory.getInvalidCommands().size());
+	}
+
+	@Test
+	void concurrent_transfers_and_passtime_conserve_money() throws InterruptedException {
+		List<String> setup = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			String id = PrimitiveAccountStore.formatId(i);
+			setup.add("create checking " + id + " 0");
+			setup.add("deposit " + id + " 1000");
+		}
+		masterControl.start(setup);
+
+		List<List<String>> perThread = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			List<String> commands = new ArrayList<>();
+			for (int n = 0; n < 300; n++) {
+				String from = PrimitiveAccountStore.formatId((t + n) % 8);
+				String to = PrimitiveAccountStore.formatId((t + n + 3) % 8);
+				commands.add(n % 100 == 99 ? "passtime 1" : "transfer " + from + " " + to + " 5");
+			}
+			perThread.add(commands);
+		}
+		runOnThreads(perThread);
+
+		long total = 0;
+		for (Accounts account : bank.getAccount().values()) {
+			total += account.getBalanceCents();
+		}
+		assertEquals(8 * 1000 * Money.ONE_DOLLAR, total);
+	}
+
+	@Test
+	void lock_free_deposits_on_a_hot_account_are_not_lost() throws InterruptedException {
+		bank = new ConcurrentBank(16, true);
+		commandHistory = new CommandHistory();
+		masterControl = new MasterControl(new CommandValidator(bank), new CommandProcessor(bank), commandHistory);
+		masterControl.start(List.of("create checking 00000001 0.0", "deposit 00000001 1000"));
+
+		List<List<String>> perThread = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			List<String> commands = new ArrayList<>();
+			for (int n = 0; n < 1000; n++) {
+				commands.add(n % 2 == 0 ? "deposit 00000001 3" : n % 250 == 1 ? "passtime 1" : "withdraw 00000001 1");
+			}
+			perThread.add(commands);
+		}
+		runOnThreads(perThread);
+
+		// 0% APR and a balance far above the low-balance threshold, so passtime changes nothing
+		long deposits = THREADS * 500 * 3;
+		long withdrawals = THREADS * (500 - 4) * 2;
+		assertEquals((1000 + deposits - withdrawals) * Money.ONE_DOLLAR, bank.getAccount("00000001").getBalanceCents());
+	}
+
+	@Test
+	void lock_free_deposits_racing_locked_transfers_conserve_money() throws InterruptedException {
+		bank = new ConcurrentBank(16, true);
+		commandHistory = new CommandHistory();
+		masterControl = new MasterControl(new CommandValidator(bank), new CommandProcessor(bank), commandHistory);
+		// The create validator does not accept savings, so that one is added directly
+		bank.addAccount("00000002", new Savings(0.0, "00000002"));
+		masterControl.start(List.of("create checking 00000001 0.0", "deposit 00000001 1000", "deposit 00000002 1000"));
+
+		List<List<String>> perThread = new ArrayList<>();
+		for (int t = 0; t < 3; t++) {
+			List<String> commands = new ArrayList<>();
+			for (int n = 0; n < 20_000; n++) {
+				commands.add(n % 2 == 0 ? "deposit 00000001 1" : "deposit 00000002 1");
+			}
+			perThread.add(commands);
+		}
+		for (int t = 0; t < 2; t++) {
+			List<String> commands = new ArrayList<>();
+			for (int n = 0; n < 20_000; n++) {
+				commands.add(n % 2 == t ? "transfer 00000001 00000002 7" : "transfer 00000002 00000001 7");
+			}
+			perThread.add(commands);
+		}
+		runOnThreads(perThread);
+
+		long total = bank.getAccount("00000001").getBalanceCents() + bank.getAccount("00000002").getBalanceCents();
+		assertEquals((2000 + 3 * 20_000) * Money.ONE_DOLLAR, total);
+	}
+
+	@Test
+	void lock_free_bank_refuses_deferred_passtime() {
+		ConcurrentBank lockFree = new ConcurrentBank(16, true);
+		assertThrows(IllegalStateException.class, () -> new LazyPassTimeEngine().passTime(lockFree, 1));
+	}
+
+	@Test
+	void lock_free_bank_refuses_array_passtime() {
+		ConcurrentBank lockFree = new ConcurrentBank(16, true);
+		assertThrows(IllegalStateException.class, () -> new ArrayPassTimeEngine().passTime(lockFree, 1));
+	}
+}
@@ -0,0 +1,56 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class HashAccountStoreTest {
+
+	HashAccountStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new HashAccountStore();
+	}
+
+	@Test
+	void get_returns_the_stored_instance() {
+		Checking checking = new Checking(1.0, "12345678");
+		store.put(checking.getId(), checking);
+
+		assertSame(checking, store.get("12345678"));
+		assertTrue(store.isLive());
+		assertFalse(store.isConcurrent());
+	}
+
+	@Test
+	void update_all_keeps_changes_and_removes_rejected_accounts() {
+		Checking kept = new Checking(1.0, "00000001");
+		kept.setBalanceCents(100);
+		store.put(kept.getId(), kept);
+		store.put("00000002", new Checking(1.0, "00000002"));
+
+		store.updateAll(account -> {
+			account.setBalanceCents(account.getBalanceCents() * 2);
+			return account.getBalanceCents() != 0;
+		});
+
+		assertEquals(1, store.size());
+		assertEquals(200, store.get("00000001").getBalanceCents());
+		assertNull(store.get("00000002"));
+	}
+
+	@Test
+	void concurrent_map_makes_a_concurrent_store() {
+		HashAccountStore concurrent = new HashAccountStore(new ConcurrentHashMap<>());
+		assertTrue(concurrent.isConcurrent());
+		assertFalse(concurrent.remove("00000001"));
+	}
+}
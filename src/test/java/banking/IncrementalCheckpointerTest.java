@@ -0,0 +1,163 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class IncrementalCheckpointerTest {
+
+	private Path directory;
+	Bank bank;
+	CommandProcessor processor;
+	MasterControl masterControl;
+	IncrementalCheckpointer checkpointer;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		directory = Files.createTempDirectory("checkpoints");
+		bank = new Bank();
+		processor = new CommandProcessor(bank);
+		masterControl = new MasterControl(new CommandValidator(bank), processor, new CommandHistory());
+		checkpointer = new IncrementalCheckpointer(directory, processor);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		checkpointer.close();
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	private List<String> files() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+		}
+	}
+
+	private Bank reload() throws IOException {
+		CommandProcessor loaded = new CommandProcessor(new Bank());
+		try (IncrementalCheckpointer reader = new IncrementalCheckpointer(directory, loaded)) {
+			reader.load();
+		}
+		return loaded.getBank();
+	}
+
+	@Test
+	void only_changed_accounts_go_into_a_delta() throws IOException {
+		masterControl.start(List.of("create checking 00000001 1.0", "create checking 00000002 1.0",
+				"deposit 00000001 100", "deposit 00000002 100"));
+		checkpointer.checkpoint(0);
+		masterControl.start(List.of("deposit 00000002 50"));
+		checkpointer.checkpoint(0);
+
+		assertEquals(List.of("base-1.snapshot", "delta-2.snapshot"), files());
+		assertEquals(BankSnapshot.HEADER_SIZE + BankSnapshot.RECORD_SIZE,
+				Files.size(directory.resolve("delta-2.snapshot")));
+		Bank restored = reload();
+		assertEquals(100 * Money.ONE_DOLLAR, restored.getAccount("00000001").getBalanceCents());
+		assertEquals(150 * Money.ONE_DOLLAR, restored.getAccount("00000002").getBalanceCents());
+	}
+
+	@Test
+	void changes_made_through_the_bank_go_into_a_delta() throws IOException {
+		masterControl.start(List.of("create checking 00000001 1.0", "create checking 00000002 1.0"));
+		checkpointer.checkpoint(0);
+		bank.addDepositCents("00000001", 100 * Money.ONE_DOLLAR);
+		bank.withdrawCents("00000001", 30 * Money.ONE_DOLLAR);
+		checkpointer.checkpoint(0);
+
+		assertEquals(List.of("base-1.snapshot", "delta-2.snapshot"), files());
+		assertEquals(70 * Money.ONE_DOLLAR, reload().getAccount("00000001").getBalanceCents());
+	}
+
+	@Test
+	void removing_an_account_writes_a_new_base() throws IOException {
+		masterControl.start(List.of("create checking 00000001 1.0", "create checking 00000002 1.0"));
+		checkpointer.checkpoint(0);
+		bank.removeAccount("00000002");
+		checkpointer.checkpoint(0);
+
+		assertEquals(List.of("base-2.snapshot"), files());
+		assertEquals(1, reload().getNumberOfAccounts());
+	}
+
+	@Test
+	void nothing_changed_writes_nothing() throws IOException {
+		masterControl.start(List.of("create checking 00000001 1.0"));
+		checkpointer.checkpoint(0);
+		checkpointer.checkpoint(0);
+
+		assertEquals(List.of("base-1.snapshot"), files());
+	}
+
+	@Test
+	void passtime_writes_a_new_base() throws IOException {
+		masterControl.start(List.of("create checking 00000001 1.0", "create checking 00000002 1.0",
+				"deposit 00000001 100"));
+		checkpointer.checkpoint(0);
+		masterControl.start(List.of("deposit 00000001 100"));
+		checkpointer.checkpoint(0);
+		masterControl.start(List.of("passtime 1"));
+		checkpointer.checkpoint(0);
+
+		assertEquals(List.of("base-3.snapshot"), files());
+		Bank restored = reload();
+		assertEquals(1, restored.getNumberOfAccounts());
+		assertEquals(bank.getAccount("00000001").getBalanceCents(),
+				restored.getAccount("00000001").getBalanceCents());
+	}
+
+	@Test
+	void compaction_merges_deltas_into_base() throws IOException {
+		WorkloadGenerator generator = new WorkloadGenerator(4);
+		generator.setAccounts(300);
+		generator.setPassTimeEvery(0);
+		List<String> commands = generator.stream(6000).collect(Collectors.toList());
+		for (int from = 0; from < commands.size(); from += 1000) {
+			masterControl.start(commands.subList(from, from + 1000));
+			checkpointer.checkpoint(from);
+		}
+		assertEquals(5, checkpointer.countDeltas());
+
+		assertTrue(checkpointer.compact());
+		assertFalse(checkpointer.compact());
+		assertEquals(List.of("base-6.snapshot"), files());
+		Bank restored = reload();
+		assertEquals(bank.getNumberOfAccounts(), restored.getNumberOfAccounts());
+		for (Accounts account : bank.getAccount().values()) {
+			assertEquals(account.getBalanceCents(), restored.getAccount(account.getId()).getBalanceCents());
+		}
+	}
+
+	@Test
+	void background_compactor_folds_deltas() throws Exception {
+		masterControl.start(List.of("create checking 00000001 1.0"));
+		checkpointer.checkpoint(0);
+		for (int i = 0; i < 3; i++) {
+			masterControl.start(List.of("deposit 00000001 10"));
+			checkpointer.checkpoint(0);
+		}
+		checkpointer.startCompactor(1, 2);
+		for (int wait = 0; wait < 500 && checkpointer.countDeltas() > 0; wait++) {
+			Thread.sleep(10);
+		}
+
+		assertEquals(0, checkpointer.countDeltas());
+		assertEquals(30 * Money.ONE_DOLLAR, reload().getAccount("00000001").getBalanceCents());
+	}
+}
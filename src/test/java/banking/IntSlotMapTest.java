@@ -0,0 +1,69 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class IntSlotMapTest {
+
+	IntSlotMap map;
+
+	@BeforeEach
+	void setUp() {
+		map = new IntSlotMap(4);
+	}
+
+	@Test
+	void missing_key_has_no_slot() {
+		assertEquals(IntSlotMap.NO_SLOT, map.get(12345678));
+	}
+
+	@Test
+	void put_key_is_found() {
+		map.put(12345678, 3);
+		assertEquals(3, map.get(12345678));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void put_existing_key_replaces_slot() {
+		map.put(12345678, 3);
+		map.put(12345678, 7);
+		assertEquals(7, map.get(12345678));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void removed_key_is_gone() {
+		map.put(12345678, 3);
+		assertEquals(3, map.remove(12345678));
+		assertEquals(IntSlotMap.NO_SLOT, map.get(12345678));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	void matches_hash_map_under_random_puts_and_removes() {
+		Map<Integer, Integer> expected = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			int key = random.nextInt(5_000);
+			if (random.nextInt(3) == 0) {
+				Integer removed = expected.remove(key);
+				assertEquals(removed == null ? IntSlotMap.NO_SLOT : removed, map.remove(key));
+			} else {
+				expected.put(key, i);
+				map.put(key, i);
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for (int key = 0; key < 5_000; key++) {
+			Integer slot = expected.get(key);
+			assertEquals(slot == null ? IntSlotMap.NO_SLOT : slot, map.get(key));
+		}
+	}
+}
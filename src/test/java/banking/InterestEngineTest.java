@@ -0,0 +1,59 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class InterestEngineTest {
+
+	InterestEngine interestEngine;
+
+	@BeforeEach
+	void setUp() {
+		interestEngine = new InterestEngine();
+	}
+
+	@Test
+	void zero_months_do_not_grow_balance() {
+		assertEquals(1.0, interestEngine.growthFactor(5.0, 0));
+	}
+
+	@Test
+	void zero_apr_does_not_grow_balance() {
+		assertEquals(100000, interestEngine.accrue(100000, 0.0, 60));
+	}
+
+	@Test
+	void one_month_applies_monthly_rate() {
+		assertEquals(100250, interestEngine.accrue(100000, 3.0, 1));
+	}
+
+	@Test
+	void closed_form_matches_monthly_compounding() {
+		for (int months = 1; months <= 60; months++) {
+			double balance = 200000;
+			for (int i = 0; i < months; i++) {
+				balance *= 1 + 2.1 / 100 / 12;
+			}
+			assertEquals(Math.round(balance), interestEngine.accrue(200000, 2.1, months), 1);
+		}
+	}
+
+	@Test
+	void months_beyond_cache_are_still_compounded() {
+		assertEquals(Math.pow(1 + 10.0 / 100 / 12, 120), interestEngine.growthFactor(10.0, 120));
+	}
+
+	@Test
+	void cache_stays_bounded_for_many_distinct_aprs() {
+		for (int i = 0; i < 10_000; i++) {
+			double apr = i / 1000.0;
+			assertEquals(Math.pow(1 + apr / 100.0 / 12, 12), interestEngine.growthFactor(apr, 12));
+		}
+		assertEquals(128, interestEngine.cachedAprs());
+		// Rates cached early are still served from the cache
+		assertEquals(Math.pow(1 + 0.001 / 100.0 / 12, 7), interestEngine.growthFactor(0.001, 7));
+		assertEquals(128, interestEngine.cachedAprs());
+	}
+}
@@ -0,0 +1,96 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LazyPassTimeEngineTest {
+
+	Bank bank;
+	CommandProcessor commandProcessor;
+
+	@BeforeEach
+	void setUp() {
+		bank = new Bank();
+		commandProcessor = new CommandProcessor(bank);
+		commandProcessor.setPassTimeEngine(new LazyPassTimeEngine());
+	}
+
+	@Test
+	void passtime_does_not_touch_accounts_until_read() {
+		commandProcessor.process("create checking 12345678 3");
+		commandProcessor.process("deposit 12345678 1000.0");
+		commandProcessor.process("passtime 1");
+
+		assertEquals(100000, bank.getAccount().get("12345678").getBalanceCents());
+		assertEquals(100250, bank.getAccount("12345678").getBalanceCents());
+	}
+
+	@Test
+	void low_balance_fee_is_applied_on_read() {
+		commandProcessor.process("create checking 12345678 3");
+		commandProcessor.process("deposit 12345678 50.0");
+		commandProcessor.process("passtime 1");
+		commandProcessor.process("passtime 1");
+
+		// $50 - $25 grows to $25.06, then another $25 fee leaves $0.06
+		assertEquals(6, bank.getAccount("12345678").getBalanceCents());
+	}
+
+	@Test
+	void zero_balance_account_is_closed_on_read() {
+		commandProcessor.process("create checking 12345678 3");
+		commandProcessor.process("passtime 1");
+
+		assertFalse(bank.accountExists("12345678"));
+		assertNull(bank.getAccount().get("12345678"));
+	}
+
+	@Test
+	void accounts_created_after_passtime_are_not_charged_for_it() {
+		commandProcessor.process("passtime 1");
+		commandProcessor.process("create checking 12345678 3");
+		commandProcessor.process("deposit 12345678 50.0");
+
+		assertEquals(5000, bank.getAccount("12345678").getBalanceCents());
+	}
+
+	@Test
+	void settle_all_closes_emptied_accounts() {
+		commandProcessor.process("create checking 12345678 3");
+		commandProcessor.process("create checking 87654321 3");
+		commandProcessor.process("deposit 87654321 500");
+		commandProcessor.process("passtime 2");
+
+		assertEquals(1, bank.getNumberOfAccounts());
+		assertTrue(bank.getAccount().containsKey("87654321"));
+	}
+
+	@Test
+	void lazy_results_match_eager_results() {
+		Bank eagerBank = new Bank();
+		CommandProcessor eagerProcessor = new CommandProcessor(eagerBank);
+		WorkloadGenerator generator = new WorkloadGenerator(11);
+		generator.setAccounts(200);
+		generator.setPassTimeEvery(300);
+
+		Iterator<String> commands = generator.iterator(5000);
+		while (commands.hasNext()) {
+			String command = commands.next();
+			eagerProcessor.process(command);
+			commandProcessor.process(command);
+		}
+
+		assertEquals(eagerBank.getNumberOfAccounts(), bank.getNumberOfAccounts());
+		for (Accounts expected : eagerBank.getAccount().values()) {
+			Accounts actual = bank.getAccount().get(expected.getId());
+			assertEquals(expected.getBalanceCents(), actual.getBalanceCents(), expected.getId());
+		}
+	}
+}
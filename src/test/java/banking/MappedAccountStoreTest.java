@@ -0,0 +1,103 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MappedAccountStoreTest {
+
+	private Path file;
+	MappedAccountStore store;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.createTempFile("accounts", ".store");
+		store = new MappedAccountStore(file, 4);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		store.close();
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	void accounts_round_trip_as_detached_copies() {
+		Savings savings = new Savings(2.5, "00000002");
+		savings.setBalanceCents(50000);
+		savings.setMonthlyWithdrawals(1);
+		savings.setLastWithdrawalDate(LocalDate.of(2024, 3, 9));
+		store.put(savings.getId(), savings);
+
+		Savings copy = (Savings) store.get("00000002");
+		assertEquals(50000, copy.getBalanceCents());
+		assertEquals(1, copy.getMonthlyWithdrawals());
+		assertEquals(LocalDate.of(2024, 3, 9), copy.getLastWithdrawalDate());
+
+		copy.setBalanceCents(1);
+		assertEquals(50000, store.get("00000002").getBalanceCents());
+		assertFalse(store.isLive());
+	}
+
+	@Test
+	void accounts_survive_reopening_across_segments() throws IOException {
+		for (int i = 0; i < 10; i++) {
+			Checking checking = new Checking(1.0, PrimitiveAccountStore.formatId(i));
+			checking.setBalanceCents(i * 100 + 1);
+			store.put(checking.getId(), checking);
+		}
+		assertTrue(store.remove("00000003"));
+		store.close();
+
+		store = new MappedAccountStore(file, 4);
+		assertEquals(9, store.size());
+		assertNull(store.get("00000003"));
+		assertEquals(901, store.get("00000009").getBalanceCents());
+
+		// The freed slot is reused instead of growing the file
+		long size = Files.size(file);
+		store.put("00000042", new Savings(1.0, "00000042"));
+		assertEquals(size, Files.size(file));
+		assertEquals(10, store.size());
+	}
+
+	@Test
+	void ids_must_be_eight_digits() {
+		assertThrows(IllegalArgumentException.class, () -> store.put("1234ABCD", new Checking(1.0, "1234ABCD")));
+		assertNull(store.get("1234ABCD"));
+	}
+
+	@Test
+	void bank_over_the_store_matches_a_plain_bank() {
+		WorkloadGenerator generator = new WorkloadGenerator(5);
+		generator.setAccounts(300);
+		generator.setPassTimeEvery(700);
+		List<String> commands = generator.stream(6000).collect(Collectors.toList());
+
+		Bank expected = new Bank();
+		List<String> expectedInvalid = new MasterControl(new CommandValidator(expected),
+				new CommandProcessor(expected), new CommandHistory()).start(commands);
+		Bank actual = new Bank(store);
+		List<String> actualInvalid = new MasterControl(new CommandValidator(actual), new CommandProcessor(actual),
+				new CommandHistory()).start(commands);
+
+		assertEquals(expectedInvalid, actualInvalid);
+		assertEquals(expected.getNumberOfAccounts(), actual.getNumberOfAccounts());
+		for (Accounts account : expected.getAccount().values()) {
+			assertEquals(account.getBalanceCents(), actual.getAccount(account.getId()).getBalanceCents());
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MappedCommandReaderTest {
+
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.createTempFile("commands", ".txt");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	private List<String> readLines(int chunkSize) throws IOException {
+		List<String> lines = new ArrayList<>();
+		try (MappedCommandReader reader = new MappedCommandReader(file, chunkSize)) {
+			while (reader.next()) {
+				lines.add(reader.getLine());
+			}
+		}
+		return lines;
+	}
+
+	private List<String> expectedLines(String content) throws IOException {
+		List<String> lines = new ArrayList<>();
+		BufferedReader reader = new BufferedReader(new StringReader(content));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lines.add(line);
+		}
+		return lines;
+	}
+
+	@Test
+	void lines_match_buffered_reader() throws IOException {
+		String content = "create checking 12345678 1.0\r\ndeposit 12345678 100\n\npasstime 1\rtransfer 1 2 3";
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(expectedLines(content), readLines(Integer.MAX_VALUE));
+	}
+
+	@Test
+	void lines_spanning_mapped_windows_are_read_whole() throws IOException {
+		String content = "create checking 12345678 1.0\r\ndeposit 12345678 100\npasstime 1\r\n";
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(expectedLines(content), readLines(32));
+	}
+
+	@Test
+	void line_ending_on_the_last_byte_of_a_window_is_read() throws IOException {
+		String content = "abcd\nefgh\n";
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(expectedLines(content), readLines(5));
+	}
+
+	@Test
+	void crlf_split_across_windows_is_one_separator() throws IOException {
+		String content = "abc\r\nde\r\nfgh\r";
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(expectedLines(content), readLines(4));
+	}
+
+	@Test
+	void line_longer_than_a_window_after_remapping_is_rejected() throws IOException {
+		Files.write(file, "passtime 1\ncreate checking 12345678 1.0\n".getBytes(StandardCharsets.UTF_8));
+
+		try (MappedCommandReader reader = new MappedCommandReader(file, 16)) {
+			assertTrue(reader.next());
+			assertEquals("passtime 1", reader.getLine());
+			assertThrows(IOException.class, reader::next);
+		}
+	}
+
+	@Test
+	void tokens_are_read_from_bytes() throws IOException {
+		Files.write(file, "  deposit   12345678\t100  \n".getBytes(StandardCharsets.UTF_8));
+
+		try (MappedCommandReader reader = new MappedCommandReader(file)) {
+			assertTrue(reader.next());
+			ParsedCommand command = reader.getCommand();
+			assertEquals(3, command.size());
+			assertSame("deposit", command.getVerb());
+			assertEquals("12345678", command.getToken(1));
+			assertEquals("100", command.getToken(2));
+			assertFalse(reader.next());
+		}
+	}
+
+	@Test
+	void empty_file_has_no_commands() throws IOException {
+		assertEquals(0, readLines(Integer.MAX_VALUE).size());
+	}
+
+	@Test
+	void master_control_reports_original_invalid_lines() throws IOException {
+		Files.write(file, "create checking 12345678 1.0\ncreat  checking 12345678 1.0\n".getBytes(StandardCharsets.UTF_8));
+		Bank bank = new Bank();
+		MasterControl masterControl = new MasterControl(new CommandValidator(bank), new CommandProcessor(bank),
+				new CommandHistory());
+		List<String> invalid = new ArrayList<>();
+
+		masterControl.start(file, invalid::add);
+
+		assertEquals(1, invalid.size());
+		assertEquals("creat  checking 12345678 1.0", invalid.get(0));
+		assertEquals(1, bank.getNumberOfAccounts());
+	}
+}
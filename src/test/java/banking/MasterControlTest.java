@@ -3,8 +3,11 @@ package banking;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -68,7 +71,34 @@ public class MasterControlTest {
         assertSingleCommand("create checking 12345678 1.0", actual);
     }
 
+    @Test
+    void streaming_iterator_pushes_invalid_commands_to_sink() {
+        input.add("create checking 12345678 1.0");
+        input.add("depositt 12345678 100");
+        List<String> invalid = new ArrayList<>();
+
+        masterControl.start(input.iterator(), invalid::add);
 
+        assertSingleCommand("depositt 12345678 100", invalid);
+    }
+
+    @Test
+    void streaming_reader_reads_one_command_per_line() throws IOException {
+        List<String> invalid = new ArrayList<>();
 
+        masterControl.start(new StringReader("create checking 12345678 1.0\ncreat checking 12345678 1.0\n"),
+                invalid::add);
 
+        assertSingleCommand("creat checking 12345678 1.0", invalid);
+    }
+
+    @Test
+    void streaming_stream_does_not_fill_command_history() {
+        List<String> invalid = new ArrayList<>();
+
+        masterControl.start(Stream.of("creat checking 12345678 1.0"), invalid::add);
+
+        assertSingleCommand("creat checking 12345678 1.0", invalid);
+        assertEquals(0, masterControl.start(new ArrayList<>()).size());
+    }
 }
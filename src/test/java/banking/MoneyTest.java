@@ -0,0 +1,53 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class MoneyTest {
+
+	@Test
+	void whole_dollars_parse_to_cents() {
+		assertEquals(10000, Money.parseCents("100"));
+	}
+
+	@Test
+	void decimal_amounts_parse_to_cents() {
+		assertEquals(10050, Money.parseCents("100.5"));
+		assertEquals(1, Money.parseCents("0.01"));
+		assertEquals(50, Money.parseCents(".5"));
+		assertEquals(500, Money.parseCents("5."));
+	}
+
+	@Test
+	void trailing_zeros_beyond_cents_are_allowed() {
+		assertEquals(10000, Money.parseCents("100.000"));
+	}
+
+	@Test
+	void sub_cent_amounts_are_invalid() {
+		assertEquals(Money.INVALID, Money.parseCents("100.005"));
+	}
+
+	@Test
+	void signed_amounts_keep_their_sign() {
+		assertEquals(-5000, Money.parseCents("-50.0"));
+		assertEquals(5000, Money.parseCents("+50"));
+	}
+
+	@Test
+	void malformed_amounts_are_invalid() {
+		assertEquals(Money.INVALID, Money.parseCents("abc"));
+		assertEquals(Money.INVALID, Money.parseCents(""));
+		assertEquals(Money.INVALID, Money.parseCents("."));
+		assertEquals(Money.INVALID, Money.parseCents("-"));
+		assertEquals(Money.INVALID, Money.parseCents("1.2.3"));
+		assertEquals(Money.INVALID, Money.parseCents("99999999999999999999"));
+	}
+
+	@Test
+	void dollars_round_trip_through_cents() {
+		assertEquals(200054, Money.toCents(2000.54));
+		assertEquals(2000.54, Money.toDollars(200054));
+	}
+}
@@ -0,0 +1,80 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class OffHeapAccountStoreTest {
+
+	OffHeapAccountStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new OffHeapAccountStore(8, 16);
+	}
+
+	@Test
+	void cd_round_trips_with_its_dates() {
+		CertificateOfDeposit cd = new CertificateOfDeposit(2000, 5.5, "87654321");
+		cd.restoreDates(LocalDate.of(2023, 1, 1), LocalDate.of(2024, 2, 1));
+		store.put(cd.getId(), cd);
+
+		CertificateOfDeposit copy = (CertificateOfDeposit) store.get("87654321");
+		assertEquals(200000, copy.getBalanceCents());
+		assertEquals(5.5, copy.getApr());
+		assertEquals(LocalDate.of(2023, 1, 1), copy.getStartDate());
+		assertEquals(LocalDate.of(2024, 2, 1), copy.getCurrentDate());
+		assertFalse(store.isLive());
+	}
+
+	@Test
+	void store_grows_by_segments_and_reuses_freed_slots() {
+		for (int i = 0; i < 100; i++) {
+			Checking checking = new Checking(1.0, PrimitiveAccountStore.formatId(i));
+			checking.setBalanceCents(i);
+			store.put(checking.getId(), checking);
+		}
+		assertEquals(13, store.segments().length);
+
+		assertTrue(store.remove("00000050"));
+		assertFalse(store.remove("00000050"));
+		store.put("00000500", new Savings(1.0, "00000500"));
+
+		assertEquals(13, store.segments().length);
+		assertEquals(100, store.size());
+		assertNull(store.get("00000050"));
+		assertEquals(99, store.get("00000099").getBalanceCents());
+		assertTrue(store.segments()[0].isDirect());
+	}
+
+	@Test
+	void bank_over_the_store_matches_a_plain_bank() {
+		WorkloadGenerator generator = new WorkloadGenerator(17);
+		generator.setAccounts(300);
+		generator.setPassTimeEvery(700);
+		List<String> commands = generator.stream(6000).collect(Collectors.toList());
+
+		Bank expected = new Bank();
+		List<String> expectedInvalid = new MasterControl(new CommandValidator(expected),
+				new CommandProcessor(expected), new CommandHistory()).start(commands);
+		Bank actual = new Bank(store);
+		CommandProcessor processor = new CommandProcessor(actual);
+		processor.setPassTimeEngine(new ParallelPassTimeEngine());
+		List<String> actualInvalid = new MasterControl(new CommandValidator(actual), processor,
+				new CommandHistory()).start(commands);
+
+		assertEquals(expectedInvalid, actualInvalid);
+		assertEquals(expected.getNumberOfAccounts(), actual.getNumberOfAccounts());
+		for (Accounts account : expected.getAccount().values()) {
+			assertEquals(account.getBalanceCents(), actual.getAccount(account.getId()).getBalanceCents());
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ParallelPassTimeEngineTest {
+
+	Bank bank;
+	CommandProcessor commandProcessor;
+
+	@BeforeEach
+	void setUp() {
+		bank = new Bank();
+		commandProcessor = new CommandProcessor(bank);
+		commandProcessor.setPassTimeEngine(new ParallelPassTimeEngine(ForkJoinPool.commonPool(), 8));
+	}
+
+	@Test
+	void apr_is_applied_to_every_partition() {
+		for (int i = 0; i < 100; i++) {
+			String id = PrimitiveAccountStore.formatId(i);
+			commandProcessor.process("create checking " + id + " 3");
+			commandProcessor.process("deposit " + id + " 1000");
+		}
+
+		commandProcessor.process("passtime 1");
+
+		for (Accounts account : bank.getAccount().values()) {
+			assertEquals(100250, account.getBalanceCents());
+		}
+	}
+
+	@Test
+	void emptied_accounts_are_closed() {
+		commandProcessor.process("create checking 12345678 3");
+		commandProcessor.process("create checking 87654321 3");
+		commandProcessor.process("deposit 87654321 500");
+
+		commandProcessor.process("passtime 1");
+
+		assertNull(bank.getAccount().get("12345678"));
+		assertEquals(1, bank.getNumberOfAccounts());
+	}
+
+	@Test
+	void parallel_results_match_eager_results() {
+		Bank eagerBank = new Bank();
+		CommandProcessor eagerProcessor = new CommandProcessor(eagerBank);
+		WorkloadGenerator generator = new WorkloadGenerator(5);
+		generator.setAccounts(500);
+		generator.setPassTimeEvery(250);
+
+		Iterator<String> commands = generator.iterator(6000);
+		while (commands.hasNext()) {
+			String command = commands.next();
+			eagerProcessor.process(command);
+			commandProcessor.process(command);
+		}
+
+		assertEquals(eagerBank.getNumberOfAccounts(), bank.getNumberOfAccounts());
+		for (Accounts expected : eagerBank.getAccount().values()) {
+			assertEquals(expected.getBalanceCents(), bank.getAccount().get(expected.getId()).getBalanceCents());
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+public class ParsedCommandTest {
+
+	@Test
+	void command_is_split_into_tokens() {
+		ParsedCommand command = ParsedCommand.parse("deposit 12345678 100");
+		assertEquals(3, command.size());
+		assertEquals("deposit", command.getVerb());
+		assertEquals("12345678", command.getToken(1));
+		assertEquals("100", command.getToken(2));
+	}
+
+	@Test
+	void extra_whitespace_is_ignored() {
+		ParsedCommand command = ParsedCommand.parse("  create \t Checking   12345678  1.0  ");
+		assertEquals(4, command.size());
+		assertEquals("Checking", command.getToken(1));
+		assertEquals("1.0", command.getToken(3));
+	}
+
+	@Test
+	void original_command_is_kept() {
+		ParsedCommand command = ParsedCommand.parse("  passtime   1 ");
+		assertEquals("  passtime   1 ", command.getCommand());
+	}
+
+	@Test
+	void empty_command_has_no_tokens() {
+		ParsedCommand command = ParsedCommand.parse("   ");
+		assertEquals(0, command.size());
+		assertEquals("", command.getVerb());
+	}
+
+	@Test
+	void long_command_keeps_every_token() {
+		ParsedCommand command = ParsedCommand.parse("a b c d e f g");
+		assertEquals(7, command.size());
+		assertEquals("g", command.getToken(6));
+	}
+
+	@Test
+	void null_command_is_not_parsed() {
+		assertNull(ParsedCommand.parse(null));
+	}
+
+	@Test
+	void tokens_match_regex_split() {
+		String input = " transfer\t12345678 \r\n 87654321  50 ";
+		String[] expected = input.trim().split("\\s+");
+		ParsedCommand command = ParsedCommand.parse(input);
+		assertEquals(expected.length, command.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], command.getToken(i));
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PipelinedMasterControlTest {
+
+	Bank bank;
+	PipelinedMasterControl pipeline;
+
+	@BeforeEach
+	void setUp() {
+		bank = new Bank();
+		// A small ring so the tests wrap around it many times
+		pipeline = new PipelinedMasterControl(new CommandValidator(bank), new CommandProcessor(bank),
+				new CommandHistory(), 8);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pipeline.close();
+	}
+
+	@Test
+	void workload_matches_master_control() {
+		WorkloadGenerator generator = new WorkloadGenerator(3);
+		generator.setAccounts(200);
+		generator.setPassTimeEvery(600);
+		List<String> commands = generator.stream(10_000).collect(Collectors.toList());
+
+		Bank expected = new Bank();
+		List<String> expectedInvalid = new MasterControl(new CommandValidator(expected),
+				new CommandProcessor(expected), new CommandHistory()).start(commands);
+
+		assertEquals(expectedInvalid, pipeline.start(commands));
+		assertEquals(expected.getNumberOfAccounts(), bank.getNumberOfAccounts());
+		for (Accounts account : expected.getAccount().values()) {
+			assertEquals(account.getBalanceCents(), bank.getAccount(account.getId()).getBalanceCents());
+		}
+	}
+
+	@Test
+	void invalid_commands_are_reported_in_input_order() {
+		List<String> reported = new ArrayList<>();
+		pipeline.start(List.of("create checking 12345678 1.0", "deposit 12345678 5000", "bogus", "deposit 12345678 50",
+				"withdraw 99999999 10").iterator(), reported::add);
+
+		assertEquals(List.of("deposit 12345678 5000", "bogus", "withdraw 99999999 10"), reported);
+		assertEquals(50 * Money.ONE_DOLLAR, bank.getAccount("12345678").getBalanceCents());
+	}
+
+	@Test
+	void can_be_started_again() {
+		pipeline.start(List.of("create checking 12345678 1.0", "deposit 12345678 100"));
+		pipeline.start(List.of("deposit 12345678 100"));
+
+		assertEquals(200 * Money.ONE_DOLLAR, bank.getAccount("12345678").getBalanceCents());
+	}
+
+	@Test
+	void buffer_size_must_be_a_power_of_two() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new PipelinedMasterControl(new CommandValidator(bank), new CommandProcessor(bank),
+						new CommandHistory(), 6));
+	}
+
+	@Test
+	void failing_sink_is_rethrown_and_the_pipeline_keeps_going() {
+		IllegalStateException broken = new IllegalStateException("sink broke");
+		IllegalStateException thrown = assertThrows(IllegalStateException.class,
+				() -> pipeline.start(List.of("bogus", "create checking 12345678 1.0", "also bogus").iterator(),
+						command -> {
+							throw broken;
+						}));
+		assertSame(broken, thrown);
+
+		pipeline.start(List.of("deposit 12345678 100"));
+		assertEquals(100 * Money.ONE_DOLLAR, bank.getAccount("12345678").getBalanceCents());
+	}
+
+	@Test
+	void idle_stages_park_instead_of_polling() throws InterruptedException {
+		pipeline.start(List.of("create checking 12345678 1.0"));
+
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (parkedStages() < 3 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(3, parkedStages());
+	}
+
+	private static int parkedStages() {
+		int parked = 0;
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().startsWith("pipeline-") && thread.getState() == Thread.State.WAITING) {
+				parked++;
+			}
+		}
+		return parked;
+	}
+}
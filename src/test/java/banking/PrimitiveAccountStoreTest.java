@@ -0,0 +1,153 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PrimitiveAccountStoreTest {
+
+	PrimitiveAccountStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new PrimitiveAccountStore(2);
+	}
+
+	@Test
+	void store_is_initially_empty() {
+		assertEquals(0, store.size());
+		assertFalse(store.contains("12345678"));
+	}
+
+	@Test
+	void checking_account_round_trips() {
+		Checking checking = new Checking(3.5, "00123456");
+		checking.addDeposit(250.25);
+		store.put(checking);
+
+		Accounts actual = store.get("00123456");
+		assertTrue(actual instanceof Checking);
+		assertEquals("00123456", actual.getId());
+		assertEquals(25025, actual.getBalanceCents());
+		assertEquals(3.5, actual.getApr());
+	}
+
+	@Test
+	void savings_account_keeps_withdrawal_state() {
+		Savings savings = new Savings(1.0, "12345678");
+		savings.incrementMonthlyWithdrawals();
+		savings.setLastWithdrawalDate(LocalDate.of(2024, 3, 1));
+		store.put(savings);
+
+		Savings actual = (Savings) store.get("12345678");
+		assertEquals(1, actual.getMonthlyWithdrawals());
+		assertEquals(LocalDate.of(2024, 3, 1), actual.getLastWithdrawalDate());
+	}
+
+	@Test
+	void cd_account_keeps_dates() {
+		CertificateOfDeposit cd = new CertificateOfDeposit(2000, 5.5, "87654321");
+		cd.passTime(13);
+		store.put(cd);
+
+		CertificateOfDeposit actual = (CertificateOfDeposit) store.get("87654321");
+		assertEquals(cd.getStartDate(), actual.getStartDate());
+		assertEquals(cd.getCurrentDate(), actual.getCurrentDate());
+		assertTrue(actual.canWithdraw());
+		assertEquals("certificateofdeposit", store.getAccountType("87654321"));
+	}
+
+	@Test
+	void balance_updates_in_place() {
+		store.put(new Checking(1.0, "12345678"));
+		store.addDepositCents("12345678", 10000);
+		store.withdrawCents("12345678", 2500);
+		assertEquals(7500, store.getBalanceCents("12345678"));
+
+		store.withdrawCents("12345678", 100000);
+		assertEquals(0, store.getBalanceCents("12345678"));
+	}
+
+	@Test
+	void store_grows_past_initial_capacity() {
+		for (int i = 0; i < 1000; i++) {
+			store.put(new Checking(1.0, PrimitiveAccountStore.formatId(i)));
+		}
+		assertEquals(1000, store.size());
+		assertEquals("00000999", store.get("00000999").getId());
+	}
+
+	@Test
+	void removed_slot_is_reused() {
+		store.put(new Checking(1.0, "12345678"));
+		assertTrue(store.remove("12345678"));
+		assertNull(store.get("12345678"));
+		store.put(new Savings(2.0, "87654321"));
+		assertEquals(1, store.size());
+		assertEquals("savings", store.getAccountType("87654321"));
+	}
+
+	@Test
+	void non_numeric_ids_are_never_found() {
+		assertEquals(-1, PrimitiveAccountStore.parseId("1234ABCD"));
+		assertEquals(-1, PrimitiveAccountStore.parseId("1234567"));
+		assertFalse(store.contains("1234ABCD"));
+	}
+
+	@Test
+	void update_all_writes_back_and_removes() {
+		for (int i = 0; i < 5; i++) {
+			Checking checking = new Checking(1.0, PrimitiveAccountStore.formatId(i));
+			checking.setBalanceCents(i * 100);
+			store.put(checking);
+		}
+
+		store.updateAll(account -> {
+			account.setBalanceCents(account.getBalanceCents() + 1);
+			return account.getBalanceCents() > 1;
+		});
+
+		List<String> ids = new ArrayList<>();
+		store.forEach(account -> ids.add(account.getId()));
+		assertEquals(4, ids.size());
+		assertFalse(ids.contains("00000000"));
+		assertEquals(401, store.getBalanceCents("00000004"));
+	}
+
+	@Test
+	void bank_over_the_store_matches_a_plain_bank() {
+		WorkloadGenerator generator = new WorkloadGenerator(11);
+		generator.setAccounts(300);
+		generator.setPassTimeEvery(700);
+		List<String> commands = generator.stream(6000).collect(Collectors.toList());
+
+		Bank expected = new Bank();
+		new MasterControl(new CommandValidator(expected), new CommandProcessor(expected), new CommandHistory())
+				.start(commands);
+		Bank actual = new Bank(store);
+		CommandProcessor processor = new CommandProcessor(actual);
+		processor.setPassTimeEngine(new ArrayPassTimeEngine());
+		new MasterControl(new CommandValidator(actual), processor, new CommandHistory()).start(commands);
+
+		assertEquals(expected.getNumberOfAccounts(), actual.getNumberOfAccounts());
+		for (Accounts account : expected.getAccount().values()) {
+			assertEquals(account.getBalanceCents(), actual.getAccount(account.getId()).getBalanceCents());
+		}
+	}
+
+	@Test
+	void deferred_passtime_is_refused() {
+		Bank bank = new Bank(store);
+		assertThrows(IllegalStateException.class, () -> bank.deferPassTime(1));
+	}
+}
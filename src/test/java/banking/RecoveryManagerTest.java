@@ -0,0 +1,104 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RecoveryManagerTest {
+
+	private Path journalFile;
+	private Path snapshotFile;
+	Bank bank;
+	CommandProcessor processor;
+	MasterControl masterControl;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		journalFile = Files.createTempFile("journal", ".log");
+		snapshotFile = Files.createTempFile("bank", ".snapshot");
+		Files.delete(snapshotFile);
+		bank = new Bank();
+		processor = new CommandProcessor(bank);
+		masterControl = new MasterControl(new CommandValidator(bank), processor, new CommandHistory());
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(journalFile);
+		Files.deleteIfExists(snapshotFile);
+	}
+
+	private List<String> workload(long seed) {
+		WorkloadGenerator generator = new WorkloadGenerator(seed);
+		generator.setAccounts(400);
+		generator.setPassTimeEvery(2500);
+		return generator.stream(12_000).collect(Collectors.toList());
+	}
+
+	private void assertSameAccounts(Bank expected, Bank actual) {
+		assertEquals(expected.getNumberOfAccounts(), actual.getNumberOfAccounts());
+		for (Accounts account : expected.getAccount().values()) {
+			Accounts recovered = actual.getAccount(account.getId());
+			assertEquals(account.getBalanceCents(), recovered.getBalanceCents(), account.getId());
+		}
+	}
+
+	@Test
+	void journal_alone_rebuilds_the_bank_in_parallel() throws IOException {
+		try (CommandJournal journal = new CommandJournal(journalFile, CommandJournal.Durability.OS_BUFFERED)) {
+			masterControl.setJournal(journal);
+			masterControl.start(workload(1));
+		}
+
+		CommandProcessor recovered = new CommandProcessor(new ConcurrentBank());
+		try (RecoveryManager recovery = new RecoveryManager(4)) {
+			recovery.recover(snapshotFile, journalFile, recovered);
+		}
+
+		assertSameAccounts(bank, recovered.getBank());
+		assertEquals(processor.getCurrentDate(), recovered.getCurrentDate());
+	}
+
+	@Test
+	void snapshot_plus_journal_tail_matches_the_live_bank() throws IOException {
+		List<String> commands = workload(2);
+		long lastLsn;
+		try (CommandJournal journal = new CommandJournal(journalFile, CommandJournal.Durability.GROUP_COMMIT)) {
+			masterControl.setJournal(journal);
+			masterControl.start(commands.subList(0, 7000));
+			BankSnapshot.write(snapshotFile, processor, journal.getLastLsn());
+			masterControl.start(commands.subList(7000, commands.size()));
+			lastLsn = journal.getLastLsn();
+		}
+
+		CommandProcessor recovered = new CommandProcessor(new ConcurrentBank());
+		try (RecoveryManager recovery = new RecoveryManager(4)) {
+			assertEquals(lastLsn, recovery.recover(snapshotFile, journalFile, recovered));
+		}
+
+		assertSameAccounts(bank, recovered.getBank());
+	}
+
+	@Test
+	void non_concurrent_bank_is_replayed_on_one_thread() throws IOException {
+		try (CommandJournal journal = new CommandJournal(journalFile, CommandJournal.Durability.OS_BUFFERED)) {
+			masterControl.setJournal(journal);
+			masterControl.start(workload(3));
+		}
+
+		CommandProcessor recovered = new CommandProcessor(new Bank());
+		try (RecoveryManager recovery = new RecoveryManager(4)) {
+			recovery.recover(snapshotFile, journalFile, recovered);
+		}
+
+		assertSameAccounts(bank, recovered.getBank());
+	}
+}
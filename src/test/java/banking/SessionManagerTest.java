@@ -0,0 +1,74 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SessionManagerTest {
+
+	ConcurrentBank bank;
+	SessionManager sessionManager;
+
+	@BeforeEach
+	void setUp() {
+		bank = new ConcurrentBank();
+		MasterControl masterControl = new MasterControl(new CommandValidator(bank), new CommandProcessor(bank),
+				new CommandHistory());
+		sessionManager = new SessionManager(masterControl, Executors.newFixedThreadPool(8));
+	}
+
+	@AfterEach
+	void tearDown() {
+		sessionManager.close();
+	}
+
+	@Test
+	void each_session_keeps_its_own_invalid_commands() throws Exception {
+		List<CompletableFuture<List<String>>> results = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			String id = PrimitiveAccountStore.formatId(i);
+			Session session = sessionManager.openSession("teller-" + i);
+			results.add(session.run(List.of("create checking " + id + " 1.0", "deposit " + id + " 100",
+					"withdraw " + id + " 500", "deposit " + id + " 2000", "deposit " + id + " 50")));
+		}
+
+		for (int i = 0; i < 200; i++) {
+			String id = PrimitiveAccountStore.formatId(i);
+			assertEquals(List.of("withdraw " + id + " 500", "deposit " + id + " 2000"), results.get(i).get());
+			assertEquals(150 * Money.ONE_DOLLAR, bank.getAccount(id).getBalanceCents());
+		}
+	}
+
+	@Test
+	void batches_of_one_session_run_in_order() throws Exception {
+		Session session = sessionManager.openSession("atm");
+		session.run(List.of("create checking 12345678 1.0"));
+		for (int i = 0; i < 50; i++) {
+			session.run(List.of("deposit 12345678 10"));
+		}
+		List<String> invalid = session.run(List.of("withdraw 12345678 400", "withdraw 12345678 400")).get();
+
+		assertEquals(List.of("withdraw 12345678 400"), invalid);
+		assertEquals(List.of("withdraw 12345678 400"), session.getCommandHistory().getInvalidCommands());
+		// The withdraw validator deducts as well, so the first withdrawal empties the account
+		assertEquals(0, bank.getAccount("12345678").getBalanceCents());
+	}
+
+	@Test
+	void default_executor_runs_sessions() throws Exception {
+		sessionManager.close();
+		bank = new ConcurrentBank();
+		sessionManager = new SessionManager(new MasterControl(new CommandValidator(bank),
+				new CommandProcessor(bank), new CommandHistory()));
+
+		assertEquals(List.of("bogus"),
+				sessionManager.openSession("teller").run(List.of("create checking 12345678 1.0", "bogus")).get());
+	}
+}
@@ -0,0 +1,127 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ShardedMasterControlTest {
+
+	ShardedMasterControl sharded;
+
+	@BeforeEach
+	void setUp() {
+		sharded = new ShardedMasterControl(4, new CommandHistory());
+	}
+
+	@AfterEach
+	void tearDown() {
+		sharded.close();
+	}
+
+	private String idOnShard(int shard, int after) {
+		for (int i = after;; i++) {
+			String id = PrimitiveAccountStore.formatId(i);
+			if (sharded.shardOf(id) == shard) {
+				return id;
+			}
+		}
+	}
+
+	@Test
+	void single_account_commands_match_master_control() {
+		WorkloadGenerator generator = new WorkloadGenerator(11);
+		generator.setAccounts(200);
+		generator.setPassTimeEvery(700);
+		generator.setMix(1, 50, 25, 0);
+		List<String> commands = generator.stream(5000).collect(Collectors.toList());
+
+		Bank bank = new Bank();
+		List<String> expectedInvalid = new MasterControl(new CommandValidator(bank), new CommandProcessor(bank),
+				new CommandHistory()).start(commands);
+
+		assertEquals(expectedInvalid, sharded.start(commands));
+		assertEquals(bank.getNumberOfAccounts(), sharded.getNumberOfAccounts());
+		for (String id : bank.getAccount().keySet()) {
+			assertEquals(bank.getAccount(id).getBalanceCents(), sharded.getAccount(id).getBalanceCents(), id);
+		}
+	}
+
+	@Test
+	void transfer_within_a_shard_is_applied() {
+		String from = idOnShard(1, 0);
+		String to = idOnShard(1, Integer.parseInt(from) + 1);
+		List<String> commands = List.of("create checking " + from + " 0", "create checking " + to + " 0",
+				"deposit " + from + " 500", "transfer " + from + " " + to + " 200");
+
+		Bank bank = new Bank();
+		new MasterControl(new CommandValidator(bank), new CommandProcessor(bank), new CommandHistory()).start(commands);
+
+		assertEquals(List.of(), sharded.start(commands));
+		assertEquals(bank.getAccount(from).getBalanceCents(), sharded.getAccount(from).getBalanceCents());
+		assertEquals(bank.getAccount(to).getBalanceCents(), sharded.getAccount(to).getBalanceCents());
+	}
+
+	@Test
+	void transfer_across_shards_matches_master_control() {
+		String from = idOnShard(0, 0);
+		String to = idOnShard(2, 0);
+		List<String> commands = List.of("create checking " + from + " 0", "create checking " + to + " 0",
+				"deposit " + from + " 500", "transfer " + from + " " + to + " 200",
+				"transfer " + to + " " + idOnShard(3, 0) + " 10");
+		Bank bank = new Bank();
+		List<String> expectedInvalid = new MasterControl(new CommandValidator(bank), new CommandProcessor(bank),
+				new CommandHistory()).start(commands);
+
+		assertEquals(expectedInvalid, sharded.start(commands));
+		assertEquals(bank.getAccount(from).getBalanceCents(), sharded.getAccount(from).getBalanceCents());
+		assertEquals(bank.getAccount(to).getBalanceCents(), sharded.getAccount(to).getBalanceCents());
+	}
+
+	@Test
+	void mixed_workload_with_transfers_matches_master_control() {
+		WorkloadGenerator generator = new WorkloadGenerator(5);
+		generator.setAccounts(300);
+		generator.setPassTimeEvery(900);
+		List<String> commands = generator.stream(20_000).collect(Collectors.toList());
+
+		Bank bank = new Bank();
+		List<String> expectedInvalid = new MasterControl(new CommandValidator(bank), new CommandProcessor(bank),
+				new CommandHistory()).start(commands);
+
+		assertEquals(expectedInvalid, sharded.start(commands));
+		long expectedTotal = 0;
+		for (Accounts account : bank.getAccount().values()) {
+			expectedTotal += account.getBalanceCents();
+			assertEquals(account.getBalanceCents(), sharded.getAccount(account.getId()).getBalanceCents());
+		}
+		long total = 0;
+		for (int shard = 0; shard < sharded.getShardCount(); shard++) {
+			for (Accounts account : sharded.getBank(shard).getAccount().values()) {
+				total += account.getBalanceCents();
+			}
+		}
+		assertEquals(expectedTotal, total);
+	}
+
+	@Test
+	void passtime_reaches_every_shard_and_is_reported_once() {
+		List<String> commands = new ArrayList<>();
+		for (int shard = 0; shard < 4; shard++) {
+			commands.add("create checking " + idOnShard(shard, 0) + " 1.0");
+		}
+		commands.add("passtime 1");
+		commands.add("passtime 0");
+
+		assertEquals(List.of("passtime 0"), sharded.start(commands));
+		// Every account was empty, so passtime closed all of them
+		assertEquals(0, sharded.getNumberOfAccounts());
+		assertNull(sharded.getAccount(idOnShard(3, 0)));
+	}
+}
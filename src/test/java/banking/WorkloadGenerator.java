@@ -0,0 +1,269 @@
+package banking;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Deterministic command streams in the grammar CommandProcessor accepts. The same
+// seed and settings always produce the same commands. The stream starts by creating
+// every account in the population, then mixes deposits, withdrawals, transfers and
+// creates of fresh accounts, with a passtime every passTimeEvery commands.
+public class WorkloadGenerator {
+	private static final byte CHECKING = 0;
+	private static final byte SAVINGS = 1;
+	private static final byte CD = 2;
+	private static final int MAX_ID = 99_999_999;
+
+	private final long seed;
+	private int accounts = 1000;
+	private double zipfExponent = 1.0;
+	private double invalidFraction = 0.01;
+	private int passTimeEvery = 10_000;
+	private int createWeight = 1;
+	private int depositWeight = 50;
+	private int withdrawWeight = 25;
+	private int transferWeight = 24;
+
+	public WorkloadGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	public void setAccounts(int accounts) {
+		if (accounts < 2 || accounts > 50_000_000) {
+			throw new IllegalArgumentException("accounts must be between 2 and 50000000");
+		}
+		this.accounts = accounts;
+	}
+
+	// 0 spreads load evenly; around 1 matches typical hot-key skew
+	public void setZipfExponent(double zipfExponent) {
+		if (zipfExponent < 0) {
+			throw new IllegalArgumentException("zipfExponent must not be negative");
+		}
+		this.zipfExponent = zipfExponent;
+	}
+
+	public void setInvalidFraction(double invalidFraction) {
+		if (invalidFraction < 0 || invalidFraction > 1) {
+			throw new IllegalArgumentException("invalidFraction must be between 0 and 1");
+		}
+		this.invalidFraction = invalidFraction;
+	}
+
+	// 0 disables passtime
+	public void setPassTimeEvery(int passTimeEvery) {
+		this.passTimeEvery = passTimeEvery;
+	}
+
+	public void setMix(int createWeight, int depositWeight, int withdrawWeight, int transferWeight) {
+		if (createWeight < 0 || depositWeight < 0 || withdrawWeight < 0 || transferWeight < 0
+				|| createWeight + depositWeight + withdrawWeight + transferWeight == 0) {
+			throw new IllegalArgumentException("mix weights must be non-negative and not all zero");
+		}
+		this.createWeight = createWeight;
+		this.depositWeight = depositWeight;
+		this.withdrawWeight = withdrawWeight;
+		this.transferWeight = transferWeight;
+	}
+
+	public Iterator<String> iterator(long count) {
+		return new Commands(count);
+	}
+
+	public Stream<String> stream(long count) {
+		return StreamSupport.stream(Spliterators.spliterator(iterator(count), count,
+				Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED), false);
+	}
+
+	public void writeTo(Writer out, long count) throws IOException {
+		Iterator<String> commands = iterator(count);
+		while (commands.hasNext()) {
+			out.write(commands.next());
+			out.write('\n');
+		}
+		out.flush();
+	}
+
+	public void writeTo(Path file, long count) throws IOException {
+		try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writeTo(out, count);
+		}
+	}
+
+	private class Commands implements Iterator<String> {
+		private final Random random = new Random(seed);
+		private final long count;
+		private final byte[] types = new byte[accounts];
+		private final double[] zipfCdf = zipfCdf(accounts, zipfExponent);
+		private final int totalWeight = createWeight + depositWeight + withdrawWeight + transferWeight;
+		private final StringBuilder builder = new StringBuilder(48);
+		private long produced;
+		private int nextFreshId = accounts;
+
+		Commands(long count) {
+			this.count = count;
+			for (int i = 0; i < accounts; i++) {
+				int roll = random.nextInt(20);
+				types[i] = roll < 9 ? CHECKING : roll < 18 ? SAVINGS : CD;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return produced < count;
+		}
+
+		@Override
+		public String next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			long index = produced++;
+			builder.setLength(0);
+
+			if (index < accounts) {
+				appendCreate((int) index, types[(int) index]);
+			} else if (passTimeEvery > 0 && (index - accounts + 1) % passTimeEvery == 0) {
+				builder.append("passtime 1");
+			} else if (random.nextDouble() < invalidFraction) {
+				appendInvalid();
+			} else {
+				appendOperation();
+			}
+			return builder.toString();
+		}
+
+		private void appendCreate(int account, byte type) {
+			builder.append("create ");
+			switch (type) {
+			case CHECKING:
+				builder.append("checking ");
+				break;
+			case SAVINGS:
+				builder.append("savings ");
+				break;
+			default:
+				builder.append("cd ");
+			}
+			builder.append(PrimitiveAccountStore.formatId(account)).append(' ');
+			appendApr();
+			if (type == CD) {
+				builder.append(' ');
+				appendCents(1000 * Money.ONE_DOLLAR + random.nextInt(900_001));
+			}
+		}
+
+		private void appendOperation() {
+			int roll = random.nextInt(totalWeight);
+			if (roll < createWeight) {
+				if (nextFreshId > MAX_ID) {
+					throw new IllegalStateException("Ran out of 8-digit ids for fresh accounts");
+				}
+				appendCreate(nextFreshId++, random.nextBoolean() ? CHECKING : SAVINGS);
+			} else if ((roll -= createWeight) < depositWeight) {
+				int account = pickNonCd();
+				long limit = types[account] == CHECKING ? 1000 : 2500;
+				builder.append("deposit ").append(PrimitiveAccountStore.formatId(account)).append(' ');
+				appendCents(1 + random.nextInt((int) (limit * Money.ONE_DOLLAR)));
+			} else if ((roll -= depositWeight) < withdrawWeight) {
+				int account = pickNonCd();
+				long limit = types[account] == CHECKING ? 400 : 1000;
+				builder.append("withdraw ").append(PrimitiveAccountStore.formatId(account)).append(' ');
+				appendCents(1 + random.nextInt((int) (limit * Money.ONE_DOLLAR)));
+			} else {
+				int from = pickNonCd();
+				int to = pickNonCd();
+				for (int i = 0; to == from && i < accounts; i++) {
+					to = pickNonCd();
+				}
+				builder.append("transfer ").append(PrimitiveAccountStore.formatId(from)).append(' ')
+						.append(PrimitiveAccountStore.formatId(to)).append(' ');
+				appendCents(1 + random.nextInt((int) (400 * Money.ONE_DOLLAR)));
+			}
+		}
+
+		private void appendInvalid() {
+			String id = PrimitiveAccountStore.formatId(pickAccount());
+			switch (random.nextInt(4)) {
+			case 0:
+				builder.append("depositt ").append(id).append(" 100");
+				break;
+			case 1:
+				builder.append("deposit ").append(id).append(" -50");
+				break;
+			case 2:
+				builder.append("withdraw ").append(id).append(" 100000");
+				break;
+			default:
+				builder.append("create checking ").append(id).append(" 11");
+			}
+		}
+
+		private int pickNonCd() {
+			int account = pickAccount();
+			for (int i = 0; types[account] == CD && i < accounts; i++) {
+				account = (account + 1) % accounts;
+			}
+			return account;
+		}
+
+		private int pickAccount() {
+			if (zipfCdf == null) {
+				return random.nextInt(accounts);
+			}
+			double u = random.nextDouble();
+			int low = 0;
+			int high = zipfCdf.length - 1;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (zipfCdf[mid] < u) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		private void appendApr() {
+			// APR between 0.0 and 10.0 with one decimal place
+			int tenths = random.nextInt(101);
+			builder.append(tenths / 10).append('.').append(tenths % 10);
+		}
+
+		private void appendCents(long cents) {
+			builder.append(cents / Money.ONE_DOLLAR).append('.');
+			long remainder = cents % Money.ONE_DOLLAR;
+			if (remainder < 10) {
+				builder.append('0');
+			}
+			builder.append(remainder);
+		}
+	}
+
+	private static double[] zipfCdf(int size, double exponent) {
+		if (exponent == 0) {
+			return null;
+		}
+		double[] cdf = new double[size];
+		double total = 0;
+		for (int rank = 0; rank < size; rank++) {
+			total += 1.0 / Math.pow(rank + 1, exponent);
+			cdf[rank] = total;
+		}
+		for (int rank = 0; rank < size; rank++) {
+			cdf[rank] /= total;
+		}
+		return cdf;
+	}
+}
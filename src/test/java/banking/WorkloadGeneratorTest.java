@@ -0,0 +1,130 @@
+package banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WorkloadGeneratorTest {
+
+	WorkloadGenerator generator;
+
+	@BeforeEach
+	void setUp() {
+		generator = new WorkloadGenerator(7);
+		generator.setAccounts(100);
+		generator.setPassTimeEvery(500);
+	}
+
+	@Test
+	void same_seed_produces_same_commands() {
+		WorkloadGenerator other = new WorkloadGenerator(7);
+		other.setAccounts(100);
+		other.setPassTimeEvery(500);
+
+		assertEquals(generator.stream(5000).collect(Collectors.toList()),
+				other.stream(5000).collect(Collectors.toList()));
+	}
+
+	@Test
+	void stream_starts_by_creating_the_population() {
+		List<String> commands = generator.stream(100).collect(Collectors.toList());
+		assertEquals(100, commands.size());
+		for (String command : commands) {
+			assertTrue(command.startsWith("create "), command);
+		}
+	}
+
+	@Test
+	void valid_commands_follow_processor_grammar() {
+		generator.setInvalidFraction(0);
+		generator.stream(10_000).forEach(command -> {
+			ParsedCommand parsed = ParsedCommand.parse(command);
+			switch (parsed.getVerb()) {
+			case "create":
+				int expected = parsed.getToken(1).equals("cd") ? 5 : 4;
+				assertEquals(expected, parsed.size(), command);
+				break;
+			case "deposit":
+			case "withdraw":
+				assertEquals(3, parsed.size(), command);
+				assertTrue(Money.parseCents(parsed.getToken(2)) > 0, command);
+				break;
+			case "transfer":
+				assertEquals(4, parsed.size(), command);
+				break;
+			case "passtime":
+				assertEquals(2, parsed.size(), command);
+				break;
+			default:
+				throw new AssertionError("Unexpected command: " + command);
+			}
+		});
+	}
+
+	@Test
+	void transfers_are_between_two_non_cd_accounts() {
+		generator.setZipfExponent(1.5);
+		generator.setInvalidFraction(0);
+		Set<String> cds = new HashSet<>();
+		List<ParsedCommand> commands = generator.stream(10_000).map(ParsedCommand::parse).collect(Collectors.toList());
+		for (ParsedCommand command : commands) {
+			if (command.getVerb().equals("create") && command.getToken(1).equals("cd")) {
+				cds.add(command.getToken(2));
+			} else if (command.getVerb().equals("transfer")) {
+				assertNotEquals(command.getToken(1), command.getToken(2));
+				assertTrue(!cds.contains(command.getToken(1)) && !cds.contains(command.getToken(2)));
+			}
+		}
+	}
+
+	@Test
+	void created_ids_are_never_reused() {
+		generator.setMix(1, 0, 0, 0);
+		generator.setInvalidFraction(0);
+		generator.setPassTimeEvery(0);
+		Set<String> ids = new HashSet<>();
+		generator.stream(5000).map(ParsedCommand::parse)
+				.forEach(command -> assertTrue(ids.add(command.getToken(2)), command.getToken(2)));
+	}
+
+	@Test
+	void passtime_is_emitted_at_configured_frequency() {
+		long passTimes = generator.stream(100 + 5000).filter(command -> command.startsWith("passtime")).count();
+		assertEquals(10, passTimes);
+	}
+
+	@Test
+	void zipf_skew_concentrates_on_hot_accounts() {
+		generator.setZipfExponent(1.2);
+		generator.setInvalidFraction(0);
+		Map<String, Integer> hits = new HashMap<>();
+		generator.stream(20_000).skip(100).map(ParsedCommand::parse)
+				.filter(command -> command.getVerb().equals("deposit"))
+				.forEach(command -> hits.merge(command.getToken(1), 1, Integer::sum));
+
+		List<Integer> counts = new ArrayList<>(hits.values());
+		counts.sort(null);
+		int hottest = counts.get(counts.size() - 1);
+		assertTrue(hottest > 10 * counts.get(counts.size() / 2), "hottest account should dominate the median");
+	}
+
+	@Test
+	void writer_output_has_one_command_per_line() throws IOException {
+		StringWriter out = new StringWriter();
+		generator.writeTo(out, 250);
+		assertEquals(250, out.toString().split("\n").length);
+	}
+}